@@ -0,0 +1,111 @@
+package com.apparels.management.benchmarks;
+
+import com.apparels.management.ApparelsManagementApplication;
+import com.apparels.management.search.ProductSearchIndexLoader;
+import com.apparels.management.service.DashboardStatsService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Boots the application on an in-memory H2 database and fills it with a
+// deterministic catalogue of the requested size.
+public final class CatalogueFixture {
+    
+    public static final int CATEGORIES = 50;
+    public static final String[] SIZES = { "XS", "S", "M", "L", "XL", "XXL" };
+    public static final String[] COLORS = { "Black", "White", "Red", "Blue", "Green", "Grey", "Navy", "Beige" };
+    public static final String[] GARMENTS = { "Shirt", "T-Shirt", "Jeans", "Jacket", "Dress", "Skirt", "Hoodie", "Sweater" };
+    public static final String[] STYLES = { "Classic", "Slim", "Relaxed", "Vintage", "Cotton", "Linen", "Denim", "Wool" };
+    
+    private static final int BATCH_SIZE = 10_000;
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    
+    private CatalogueFixture() {
+    }
+    
+    public static ConfigurableApplicationContext start(int productCount) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ApparelsManagementApplication.class)
+                .profiles("dev")
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark" + DATABASES.incrementAndGet(),
+                        "spring.jpa.show-sql=false",
+                        "spring.h2.console.enabled=false",
+                        "cache.warm.products=0",
+                        "logging.level.root=WARN")
+                .run();
+        
+        if (productCount > 0) {
+            seed(context.getBean(JdbcTemplate.class), productCount);
+            context.getBean(ProductSearchIndexLoader.class).load();
+            context.getBean(DashboardStatsService.class).reconcile();
+        }
+        return context;
+    }
+    
+    // Rows are inserted in order into an empty database, so ids run from 1 to the count
+    private static void seed(JdbcTemplate jdbcTemplate, int productCount) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int c = 1; c <= CATEGORIES; c++) {
+            jdbcTemplate.update("INSERT INTO categories (name, description, created_at, updated_at) VALUES (?, ?, ?, ?)",
+                    "Category " + c, "Benchmark category " + c, now, now);
+        }
+        
+        jdbcTemplate.update("INSERT INTO locations (name, created_at) VALUES (?, ?)", "Warehouse", now);
+        
+        Random random = new Random(42);
+        for (int from = 0; from < productCount; from += BATCH_SIZE) {
+            int start = from;
+            int count = Math.min(BATCH_SIZE, productCount - from);
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO products (name, description, price, sku, size, color, category_id, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            int n = start + i;
+                            ps.setString(1, STYLES[random.nextInt(STYLES.length)] + " " + GARMENTS[random.nextInt(GARMENTS.length)] + " " + n);
+                            ps.setString(2, "Benchmark product number " + n);
+                            ps.setBigDecimal(3, BigDecimal.valueOf(500 + random.nextInt(19_500), 2));
+                            ps.setString(4, String.format("SKU-%07d", n));
+                            ps.setString(5, SIZES[random.nextInt(SIZES.length)]);
+                            ps.setString(6, COLORS[random.nextInt(COLORS.length)]);
+                            ps.setLong(7, 1 + random.nextInt(CATEGORIES));
+                            ps.setTimestamp(8, now);
+                            ps.setTimestamp(9, now);
+                        }
+                        
+                        @Override
+                        public int getBatchSize() {
+                            return count;
+                        }
+                    });
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO inventory (product_id, stock_level, location_id, reorder_level, last_updated) VALUES (?, ?, ?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ps.setLong(1, start + i + 1L);
+                            ps.setInt(2, random.nextInt(200));
+                            ps.setLong(3, 1L);
+                            ps.setInt(4, 10);
+                            ps.setTimestamp(5, now);
+                        }
+                        
+                        @Override
+                        public int getBatchSize() {
+                            return count;
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.apparels.management.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Application context with a seeded catalogue, shared by all benchmark threads of a trial
+@State(Scope.Benchmark)
+public class CatalogueState {
+    
+    @Param({ "10000", "100000", "1000000" })
+    public int products;
+    
+    public ConfigurableApplicationContext context;
+    
+    @Setup(Level.Trial)
+    public void start() {
+        context = CatalogueFixture.start(products);
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+    
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,89 @@
+package com.apparels.management.benchmarks;
+
+import com.apparels.management.dto.InventoryRow;
+import com.apparels.management.dto.ProductStockTotal;
+import com.apparels.management.entity.Inventory;
+import com.apparels.management.service.InventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Low-stock listing, per-location lookup and stock total latency, and stock
+// add/remove throughput under concurrent writers
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InventoryBenchmark {
+    
+    private static final int LIMIT = 101;
+    
+    private InventoryService inventoryService;
+    private int inventoryCount;
+    
+    @Setup
+    public void setUp(CatalogueState catalogue) {
+        inventoryService = catalogue.bean(InventoryService.class);
+        inventoryCount = catalogue.products;
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<InventoryRow> lowStockItems() {
+        return inventoryService.getLowStockItems(0L, LIMIT);
+    }
+    
+    // The fixture keeps all stock at location 1
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Optional<Inventory> inventoryAtLocation() {
+        return inventoryService.getInventoryByProductId(randomInventoryId(), 1L);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<ProductStockTotal> stockTotals() {
+        return inventoryService.getStockTotals(0L, LIMIT);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(8)
+    public Inventory addStock() {
+        return inventoryService.addStock(randomInventoryId(), 1);
+    }
+    
+    // Removing from an empty row is rejected; that path is part of the measured cost
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(8)
+    public Object removeStock() {
+        try {
+            return inventoryService.removeStock(randomInventoryId(), 1);
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+    
+    private long randomInventoryId() {
+        return 1 + ThreadLocalRandom.current().nextInt(inventoryCount);
+    }
+}
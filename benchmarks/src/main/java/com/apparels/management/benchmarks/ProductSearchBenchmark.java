@@ -0,0 +1,100 @@
+package com.apparels.management.benchmarks;
+
+import com.apparels.management.dto.ProductFacets;
+import com.apparels.management.dto.ProductSummary;
+import com.apparels.management.entity.Product;
+import com.apparels.management.repository.ProductRepository;
+import com.apparels.management.repository.ProductSpecifications;
+import com.apparels.management.search.ProductSort;
+import com.apparels.management.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ProductService.searchProducts, getTopProducts and getFacets against the in-memory index, with the database query it replaces for comparison
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductSearchBenchmark {
+    
+    private static final int LIMIT = 101;
+    private static final BigDecimal MIN_PRICE = new BigDecimal("20.00");
+    private static final BigDecimal MAX_PRICE = new BigDecimal("80.00");
+    private static final int TOP = 20;
+    private static final ProductSort CHEAPEST = ProductSort.parse("price");
+    private static final ProductSort NEWEST = ProductSort.parse("-createdAt");
+    
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private Specification<Product> byName;
+    private Specification<Product> byFilters;
+    
+    @Setup
+    public void setUp(CatalogueState catalogue) {
+        productService = catalogue.bean(ProductService.class);
+        productRepository = catalogue.bean(ProductRepository.class);
+        byName = ProductSpecifications.search("jacket", null, null, null, null, null);
+        byFilters = ProductSpecifications.search(null, 7L, MIN_PRICE, MAX_PRICE, "M", "Navy");
+    }
+    
+    @Benchmark
+    public List<ProductSummary> searchByName() {
+        return productService.searchProducts("jacket", null, null, null, null, null, null, 0L, LIMIT);
+    }
+    
+    @Benchmark
+    public List<ProductSummary> searchByText() {
+        return productService.searchProducts(null, "slim denim", null, null, null, null, null, 0L, LIMIT);
+    }
+    
+    @Benchmark
+    public List<ProductSummary> searchByFilters() {
+        return productService.searchProducts(null, null, 7L, MIN_PRICE, MAX_PRICE, "M", "Navy", 0L, LIMIT);
+    }
+    
+    @Benchmark
+    public List<ProductSummary> cheapestInCategory() {
+        return productService.getTopProducts(null, null, 7L, null, null, null, null, CHEAPEST, TOP);
+    }
+    
+    @Benchmark
+    public List<ProductSummary> newestArrivals() {
+        return productService.getTopProducts(null, null, null, null, null, null, null, NEWEST, TOP);
+    }
+    
+    @Benchmark
+    public ProductFacets facetsUnfiltered() {
+        return productService.getFacets(null, null, null, null, null, null, null);
+    }
+    
+    @Benchmark
+    public ProductFacets facetsByFilters() {
+        return productService.getFacets("jacket", null, 7L, MIN_PRICE, MAX_PRICE, "M", "Navy");
+    }
+    
+    @Benchmark
+    public List<ProductSummary> searchByNameDatabase() {
+        return productRepository.searchSummaries(byName, Sort.by("id"), LIMIT);
+    }
+    
+    @Benchmark
+    public List<ProductSummary> searchByFiltersDatabase() {
+        return productRepository.searchSummaries(byFilters, Sort.by("id"), LIMIT);
+    }
+}
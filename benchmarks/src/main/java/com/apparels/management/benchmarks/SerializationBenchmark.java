@@ -0,0 +1,118 @@
+package com.apparels.management.benchmarks;
+
+import com.apparels.management.dto.InventoryRow;
+import com.apparels.management.dto.ProductSummary;
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Inventory;
+import com.apparels.management.entity.Location;
+import com.apparels.management.entity.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity-to-JSON cost of a page of Product/Inventory entities and of the list DTOs that replaced them
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    
+    @Param({ "100", "1000" })
+    public int pageSize;
+    
+    private ObjectMapper objectMapper;
+    private List<Product> products;
+    private List<Inventory> inventory;
+    private List<ProductSummary> productSummaries;
+    private List<InventoryRow> inventoryRows;
+    
+    @Setup
+    public void setUp() {
+        // Same module set Spring Boot registers on the application's ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        products = new ArrayList<>(pageSize);
+        inventory = new ArrayList<>(pageSize);
+        productSummaries = new ArrayList<>(pageSize);
+        inventoryRows = new ArrayList<>(pageSize);
+        
+        LocalDateTime now = LocalDateTime.now();
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Category 1");
+        category.setDescription("Benchmark category 1");
+        category.setCreatedAt(now);
+        category.setUpdatedAt(now);
+        Location location = new Location(1L, "Warehouse", now);
+        
+        for (int i = 1; i <= pageSize; i++) {
+            Product product = new Product();
+            product.setId((long) i);
+            product.setName("Classic Shirt " + i);
+            product.setDescription("Benchmark product number " + i);
+            product.setPrice(BigDecimal.valueOf(1999 + i, 2));
+            product.setSku(String.format("SKU-%07d", i));
+            product.setSize(CatalogueFixture.SIZES[i % CatalogueFixture.SIZES.length]);
+            product.setColor(CatalogueFixture.COLORS[i % CatalogueFixture.COLORS.length]);
+            product.setCategory(category);
+            product.setCreatedAt(now);
+            product.setUpdatedAt(now);
+            products.add(product);
+            
+            Inventory item = new Inventory();
+            item.setId((long) i);
+            item.setProduct(product);
+            item.setStockLevel(i % 200);
+            item.setLocation(location);
+            item.setReorderLevel(10);
+            item.setLastUpdated(now);
+            inventory.add(item);
+            
+            productSummaries.add(new ProductSummary(product.getId(), product.getName(), product.getDescription(),
+                    product.getPrice(), product.getSku(), product.getSize(), product.getColor(),
+                    category.getId(), category.getName()));
+            inventoryRows.add(new InventoryRow(item.getId(), item.getStockLevel(), location.getId(),
+                    location.getName(), item.getReorderLevel(), item.getLastUpdated(), product.getId(), product.getName(),
+                    product.getDescription(), product.getPrice(), product.getSku(), product.getSize(),
+                    product.getColor(), category.getId(), category.getName()));
+        }
+    }
+    
+    @Benchmark
+    public byte[] productEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+    
+    @Benchmark
+    public byte[] inventoryEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(inventory);
+    }
+    
+    @Benchmark
+    public byte[] productSummaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productSummaries);
+    }
+    
+    @Benchmark
+    public byte[] inventoryRows() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(inventoryRows);
+    }
+}
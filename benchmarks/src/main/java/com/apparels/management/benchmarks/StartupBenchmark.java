@@ -0,0 +1,41 @@
+package com.apparels.management.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Cold start of the application context, including seeding, index build and dashboard reconciliation.
+// Each fork is a fresh JVM, so every measurement is a true cold start.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 5, jvmArgsAppend = "-Xmx4g")
+public class StartupBenchmark {
+    
+    @Benchmark
+    public void emptyCatalogue() {
+        CatalogueFixture.start(0).close();
+    }
+    
+    @Benchmark
+    public void seededCatalogue(Catalogue catalogue) {
+        CatalogueFixture.start(catalogue.products).close();
+    }
+    
+    @State(Scope.Benchmark)
+    public static class Catalogue {
+        
+        @Param({ "10000", "100000" })
+        public int products;
+    }
+}
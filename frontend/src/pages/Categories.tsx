@@ -21,8 +21,7 @@ const Categories = () => {
   const fetchCategories = async () => {
     try {
       setError(null);
-      const response = await categoryApi.getAll();
-      setCategories(response.data);
+      setCategories(await categoryApi.getAllPages());
     } catch (error: any) {
       console.error('Error fetching categories:', error);
       const errorMessage = error.response?.data?.message || 
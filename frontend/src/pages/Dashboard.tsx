@@ -1,10 +1,10 @@
-import { useEffect, useState } from 'react';
+import { useEffect, useRef, useState } from 'react';
 import { Package, FolderTree, Warehouse, AlertTriangle } from 'lucide-react';
-import { productApi, categoryApi, inventoryApi } from '../services/api';
-import type { Inventory } from '../types';
+import { dashboardApi, inventoryApi, subscribeToInventoryStream } from '../services/api';
+import type { DashboardStats, Inventory, InventoryStreamEvent } from '../types';
 
 const Dashboard = () => {
-  const [stats, setStats] = useState({
+  const [stats, setStats] = useState<DashboardStats>({
     totalProducts: 0,
     totalCategories: 0,
     totalInventory: 0,
@@ -13,32 +13,81 @@ const Dashboard = () => {
   const [lowStockItems, setLowStockItems] = useState<Inventory[]>([]);
   const [loading, setLoading] = useState(true);
 
-  useEffect(() => {
-    const fetchData = async () => {
-      try {
-        const [productsRes, categoriesRes, inventoryRes, lowStockRes] = await Promise.all([
-          productApi.getAll(),
-          categoryApi.getAll(),
-          inventoryApi.getAll(),
-          inventoryApi.getLowStock(),
-        ]);
+  const statsTimer = useRef<ReturnType<typeof setTimeout>>();
 
-        setStats({
-          totalProducts: productsRes.data.length,
-          totalCategories: categoriesRes.data.length,
-          totalInventory: inventoryRes.data.reduce((sum, inv) => sum + inv.stockLevel, 0),
-          lowStockItems: lowStockRes.data.length,
-        });
+  const fetchData = async () => {
+    try {
+      const [statsRes, lowStockRes] = await Promise.all([
+        dashboardApi.getStats(),
+        inventoryApi.getLowStock(),
+      ]);
 
-        setLowStockItems(lowStockRes.data);
-      } catch (error) {
-        console.error('Error fetching dashboard data:', error);
-      } finally {
-        setLoading(false);
-      }
-    };
+      setStats(statsRes.data);
+
+      setLowStockItems(lowStockRes.data);
+    } catch (error) {
+      console.error('Error fetching dashboard data:', error);
+    } finally {
+      setLoading(false);
+    }
+  };
+
+  // Stats are in-memory counters on the server; a burst of changes refetches them once
+  const refreshStats = () => {
+    clearTimeout(statsTimer.current);
+    statsTimer.current = setTimeout(() => {
+      dashboardApi.getStats().then((response) => setStats(response.data)).catch(() => {});
+    }, 500);
+  };
 
+  const applyStreamEvent = (event: InventoryStreamEvent) => {
+    switch (event.type) {
+      case 'LOW_STOCK_ENTERED':
+        if (event.inventoryId) {
+          inventoryApi
+            .getById(event.inventoryId)
+            .then((response) =>
+              setLowStockItems((current) =>
+                current.some((item) => item.id === response.data.id)
+                  ? current
+                  : [...current, response.data].sort((a, b) => (a.id ?? 0) - (b.id ?? 0))
+              )
+            )
+            .catch(() => {});
+        }
+        break;
+      case 'LOW_STOCK_LEFT':
+      case 'INVENTORY_DELETED':
+        setLowStockItems((current) => current.filter((item) => item.id !== event.inventoryId));
+        break;
+      case 'INVENTORY_CHANGED':
+        setLowStockItems((current) =>
+          current.map((item) =>
+            item.id === event.inventoryId
+              ? {
+                  ...item,
+                  stockLevel: event.stockLevel ?? item.stockLevel,
+                  reorderLevel: event.reorderLevel ?? item.reorderLevel,
+                  location: event.location ?? item.location,
+                }
+              : item
+          )
+        );
+        break;
+      case 'RESYNC':
+        fetchData();
+        return;
+    }
+    refreshStats();
+  };
+
+  useEffect(() => {
     fetchData();
+    const unsubscribe = subscribeToInventoryStream(applyStreamEvent);
+    return () => {
+      unsubscribe();
+      clearTimeout(statsTimer.current);
+    };
   }, []);
 
   if (loading) {
@@ -109,7 +158,7 @@ const Dashboard = () => {
                       </span>
                     </td>
                     <td className="py-3 text-gray-600">{item.reorderLevel}</td>
-                    <td className="py-3 text-gray-600">{item.location || 'N/A'}</td>
+                    <td className="py-3 text-gray-600">{item.location?.name || 'N/A'}</td>
                   </tr>
                 ))}
               </tbody>
@@ -1,10 +1,11 @@
-import { useEffect, useState } from 'react';
+import { useEffect, useRef, useState } from 'react';
 import { Plus, Edit, AlertTriangle, PackagePlus, PackageMinus, X } from 'lucide-react';
-import { inventoryApi, productApi } from '../services/api';
-import type { Inventory, Product } from '../types';
+import { inventoryApi, productApi, nextCursor, subscribeToInventoryStream } from '../services/api';
+import type { Inventory, InventoryStreamEvent, Product } from '../types';
 
 const Inventory = () => {
   const [inventory, setInventory] = useState<Inventory[]>([]);
+  const [inventoryCursor, setInventoryCursor] = useState<string | undefined>();
   const [products, setProducts] = useState<Product[]>([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
@@ -17,16 +18,76 @@ const Inventory = () => {
     reorderLevel: '',
   });
 
+  // Read by the stream handler, which is registered once
+  const inventoryRef = useRef<Inventory[]>([]);
+  const inventoryCursorRef = useRef<string | undefined>();
+  inventoryRef.current = inventory;
+  inventoryCursorRef.current = inventoryCursor;
+
   useEffect(() => {
     fetchInventory();
     fetchProducts();
+    return subscribeToInventoryStream(applyStreamEvent);
   }, []);
 
-  const fetchInventory = async () => {
+  // Rows past the loaded pages arrive with "Load more", so only the last page takes new rows
+  const upsertRow = (row: Inventory) => {
+    setInventory((current) => {
+      if (current.some((item) => item.id === row.id)) {
+        return current.map((item) => (item.id === row.id ? row : item));
+      }
+      return inventoryCursorRef.current ? current : [...current, row];
+    });
+  };
+
+  const applyStreamEvent = (event: InventoryStreamEvent) => {
+    switch (event.type) {
+      case 'INVENTORY_CHANGED':
+        if (!inventoryRef.current.some((item) => item.id === event.inventoryId)) {
+          // A row created elsewhere; the event does not carry its product
+          if (!inventoryCursorRef.current && event.inventoryId) {
+            inventoryApi.getById(event.inventoryId).then((response) => upsertRow(response.data)).catch(() => {});
+          }
+          break;
+        }
+        setInventory((current) =>
+          current.map((item) =>
+            item.id === event.inventoryId
+              ? {
+                  ...item,
+                  stockLevel: event.stockLevel ?? item.stockLevel,
+                  reorderLevel: event.reorderLevel ?? item.reorderLevel,
+                  location: event.location ?? item.location,
+                  lastUpdated: event.occurredAt,
+                }
+              : item
+          )
+        );
+        break;
+      case 'INVENTORY_DELETED':
+        setInventory((current) => current.filter((item) => item.id !== event.inventoryId));
+        break;
+      case 'PRODUCT_SAVED':
+        setInventory((current) =>
+          current.map((item) =>
+            item.product.id === event.productId && event.product
+              ? { ...item, product: { ...item.product, ...event.product } }
+              : item
+          )
+        );
+        break;
+      case 'RESYNC':
+        fetchInventory();
+        break;
+    }
+  };
+
+  const fetchInventory = async (cursor?: string) => {
     try {
       setError(null);
-      const response = await inventoryApi.getAll();
-      setInventory(response.data);
+      const response = await inventoryApi.getAll({ cursor });
+      setInventory((current) => (cursor ? [...current, ...response.data] : response.data));
+      setInventoryCursor(nextCursor(response));
     } catch (error: any) {
       console.error('Error fetching inventory:', error);
       const errorMessage = error.response?.data?.message || 
@@ -41,8 +102,7 @@ const Inventory = () => {
   const fetchProducts = async () => {
     try {
       setError(null);
-      const response = await productApi.getAll();
-      setProducts(response.data);
+      setProducts(await productApi.getAllPages());
     } catch (error: any) {
       console.error('Error fetching products:', error);
       const errorMessage = error.response?.data?.message || 
@@ -57,23 +117,24 @@ const Inventory = () => {
     try {
       const inventoryData: Partial<Inventory> = {
         stockLevel: Number(formData.stockLevel),
-        location: formData.location || undefined,
+        location: formData.location ? { name: formData.location } : undefined,
         reorderLevel: Number(formData.reorderLevel) || 10,
       };
 
       if (editingInventory?.id) {
-        await inventoryApi.update(editingInventory.id, inventoryData);
+        const response = await inventoryApi.update(editingInventory.id, inventoryData);
+        upsertRow(response.data);
       } else {
         if (!selectedProductId) {
           alert('Please select a product');
           return;
         }
-        await inventoryApi.create(Number(selectedProductId), inventoryData);
+        const response = await inventoryApi.create(Number(selectedProductId), inventoryData);
+        upsertRow(response.data);
       }
 
       setShowModal(false);
       resetForm();
-      fetchInventory();
     } catch (error: any) {
       const errorMessage = error.response?.data?.message || error.response?.data || 'Error saving inventory';
       alert(typeof errorMessage === 'string' ? errorMessage : JSON.stringify(errorMessage));
@@ -84,7 +145,7 @@ const Inventory = () => {
     setEditingInventory(item);
     setFormData({
       stockLevel: item.stockLevel.toString(),
-      location: item.location || '',
+      location: item.location?.name || '',
       reorderLevel: item.reorderLevel.toString(),
     });
     setSelectedProductId(item.product.id || '');
@@ -97,8 +158,8 @@ const Inventory = () => {
       return;
     }
     try {
-      await inventoryApi.addStock(id, quantity);
-      fetchInventory();
+      const response = await inventoryApi.addStock(id, quantity);
+      upsertRow(response.data);
     } catch (error: any) {
       const errorMessage = error.response?.data?.message || error.response?.data || 'Error updating stock';
       alert(typeof errorMessage === 'string' ? errorMessage : JSON.stringify(errorMessage));
@@ -111,8 +172,8 @@ const Inventory = () => {
       return;
     }
     try {
-      await inventoryApi.removeStock(id, quantity);
-      fetchInventory();
+      const response = await inventoryApi.removeStock(id, quantity);
+      upsertRow(response.data);
     } catch (error: any) {
       const errorMessage = error.response?.data?.message || error.response?.data || 'Error updating stock';
       alert(typeof errorMessage === 'string' ? errorMessage : JSON.stringify(errorMessage));
@@ -209,7 +270,7 @@ const Inventory = () => {
                     </span>
                   </td>
                   <td className="py-3 text-gray-600">{item.reorderLevel}</td>
-                  <td className="py-3 text-gray-600">{item.location || 'N/A'}</td>
+                  <td className="py-3 text-gray-600">{item.location?.name || 'N/A'}</td>
                   <td className="py-3">
                     {isLowStock(item) ? (
                       <span className="flex items-center text-red-600 text-sm">
@@ -262,6 +323,14 @@ const Inventory = () => {
         </table>
       </div>
 
+      {inventoryCursor && (
+        <div className="flex justify-center mt-4">
+          <button onClick={() => fetchInventory(inventoryCursor)} className="btn btn-secondary">
+            Load more
+          </button>
+        </div>
+      )}
+
       {/* Products without inventory */}
       {productsWithoutInventory.length > 0 && (
         <div className="card mt-6">
@@ -324,19 +393,13 @@ const Inventory = () => {
                     className="input"
                   >
                     <option value="">Select a product</option>
-                    {productsWithoutInventory.length > 0 ? (
-                      productsWithoutInventory.map((product) => (
-                        <option key={product.id} value={product.id}>
-                          {product.name} ({product.sku})
-                        </option>
-                      ))
-                    ) : (
-                      <option value="" disabled>No products available (all have inventory)</option>
-                    )}
+                    {products.map((product) => (
+                      <option key={product.id} value={product.id}>
+                        {product.name} ({product.sku})
+                      </option>
+                    ))}
                   </select>
-                  {productsWithoutInventory.length === 0 && (
-                    <p className="text-sm text-gray-500 mt-1">All products already have inventory records.</p>
-                  )}
+                  <p className="text-sm text-gray-500 mt-1">A product has one inventory record per location.</p>
                 </div>
               )}
 
@@ -365,7 +428,7 @@ const Inventory = () => {
               </div>
 
               <div>
-                <label className="label">Location</label>
+                <label className="label">Location (default location if empty)</label>
                 <input
                   type="text"
                   value={formData.location}
@@ -1,10 +1,11 @@
 import { useEffect, useState } from 'react';
 import { Plus, Search, Edit, Trash2, X } from 'lucide-react';
-import { productApi, categoryApi } from '../services/api';
-import type { Product, Category } from '../types';
+import { productApi, categoryApi, nextCursor } from '../services/api';
+import type { Product, Category, ProductFacets } from '../types';
 
 const Products = () => {
   const [products, setProducts] = useState<Product[]>([]);
+  const [productsCursor, setProductsCursor] = useState<string | undefined>();
   const [categories, setCategories] = useState<Category[]>([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
@@ -13,6 +14,7 @@ const Products = () => {
   const [editingProduct, setEditingProduct] = useState<Product | null>(null);
   const [searchTerm, setSearchTerm] = useState('');
   const [selectedCategory, setSelectedCategory] = useState<number | ''>('');
+  const [facets, setFacets] = useState<ProductFacets | null>(null);
   const [formData, setFormData] = useState({
     name: '',
     description: '',
@@ -32,11 +34,26 @@ const Products = () => {
     fetchCategories();
   }, []);
 
-  const fetchProducts = async () => {
+  // Category counts for the current search term, refreshed after typing pauses
+  useEffect(() => {
+    const timer = setTimeout(async () => {
+      try {
+        const response = await productApi.facets({ text: searchTerm || undefined });
+        setFacets(response.data);
+      } catch {
+        // Counts are unavailable until the search index is built
+        setFacets(null);
+      }
+    }, 250);
+    return () => clearTimeout(timer);
+  }, [searchTerm, products]);
+
+  const fetchProducts = async (cursor?: string) => {
     try {
       setError(null);
-      const response = await productApi.getAll();
-      setProducts(response.data);
+      const response = await productApi.getAll({ cursor });
+      setProducts((current) => (cursor ? [...current, ...response.data] : response.data));
+      setProductsCursor(nextCursor(response));
     } catch (error: any) {
       console.error('Error fetching products:', error);
       const errorMessage = error.response?.data?.message || 
@@ -51,8 +68,7 @@ const Products = () => {
   const fetchCategories = async () => {
     try {
       setError(null);
-      const response = await categoryApi.getAll();
-      setCategories(response.data);
+      setCategories(await categoryApi.getAllPages());
     } catch (error: any) {
       console.error('Error fetching categories:', error);
       const errorMessage = error.response?.data?.message || 
@@ -226,6 +242,7 @@ const Products = () => {
             {categories.map((cat) => (
               <option key={cat.id} value={cat.id}>
                 {cat.name}
+                {facets && ` (${facets.categories[String(cat.id)] ?? 0})`}
               </option>
             ))}
           </select>
@@ -289,6 +306,14 @@ const Products = () => {
         </table>
       </div>
 
+      {productsCursor && (
+        <div className="flex justify-center mt-4">
+          <button onClick={() => fetchProducts(productsCursor)} className="btn btn-secondary">
+            Load more
+          </button>
+        </div>
+      )}
+
       {/* Modal */}
       {showModal && (
         <div className="fixed inset-0 bg-black bg-opacity-50 flex items-center justify-center z-50">
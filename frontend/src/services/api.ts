@@ -1,5 +1,17 @@
-import axios from 'axios';
-import type { Product, Category, Inventory } from '../types';
+import axios, { type AxiosResponse } from 'axios';
+import type {
+  Product,
+  ProductFacets,
+  Category,
+  Inventory,
+  DashboardStats,
+  StockAdjustment,
+  StockAdjustmentResult,
+  InventoryStreamEvent,
+  Location,
+  ProductStockTotal,
+  StockTransfer,
+} from '../types';
 
 // Use environment variable if set (for production), otherwise use relative path (for dev)
 const API_BASE_URL = import.meta.env.VITE_API_URL || '';
@@ -11,9 +23,43 @@ const api = axios.create({
   },
 });
 
+// Keyset pagination: pass the cursor from the previous response to get the next page
+export interface PageParams {
+  cursor?: string;
+  limit?: number;
+}
+
+export const nextCursor = (response: AxiosResponse): string | undefined =>
+  response.headers['x-next-cursor'] || undefined;
+
+// Largest page the server returns (pagination.max-limit)
+const MAX_PAGE_SIZE = 1000;
+
+// Follows X-Next-Cursor to the last page, for lists the UI needs in full such as dropdowns
+export const fetchAllPages = async <T>(
+  fetchPage: (page: PageParams) => Promise<AxiosResponse<T[]>>,
+): Promise<T[]> => {
+  const rows: T[] = [];
+  let cursor: string | undefined;
+  do {
+    const response = await fetchPage({ cursor, limit: MAX_PAGE_SIZE });
+    rows.push(...response.data);
+    cursor = nextCursor(response);
+  } while (cursor);
+  return rows;
+};
+
+// Product listings: a sort returns the first `limit` rows in that order, without a cursor
+export type ProductSort = 'price' | '-price' | 'name' | '-name' | 'createdAt' | '-createdAt';
+
+export interface ProductListParams extends PageParams {
+  sort?: ProductSort;
+}
+
 // Products API
 export const productApi = {
-  getAll: () => api.get<Product[]>('/products'),
+  getAll: (page?: ProductListParams) => api.get<Product[]>('/products', { params: page }),
+  getAllPages: () => fetchAllPages((page) => api.get<Product[]>('/products', { params: page })),
   getById: (id: number) => api.get<Product>(`/products/${id}`),
   getBySku: (sku: string) => api.get<Product>(`/products/sku/${sku}`),
   create: (product: Product) => api.post<Product>('/products', product),
@@ -21,20 +67,32 @@ export const productApi = {
   delete: (id: number) => api.delete(`/products/${id}`),
   search: (params: {
     name?: string;
+    text?: string;
     categoryId?: number;
     minPrice?: number;
     maxPrice?: number;
     size?: string;
     color?: string;
-  }) => api.get<Product[]>('/products/search', { params }),
-  getByCategory: (categoryId: number) => api.get<Product[]>(`/products/category/${categoryId}`),
-  getByPriceRange: (minPrice: number, maxPrice: number) =>
-    api.get<Product[]>('/products/price-range', { params: { minPrice, maxPrice } }),
+  } & ProductListParams) => api.get<Product[]>('/products/search', { params }),
+  facets: (params: {
+    name?: string;
+    text?: string;
+    categoryId?: number;
+    minPrice?: number;
+    maxPrice?: number;
+    size?: string;
+    color?: string;
+  }) => api.get<ProductFacets>('/products/facets', { params }),
+  getByCategory: (categoryId: number, page?: ProductListParams) =>
+    api.get<Product[]>(`/products/category/${categoryId}`, { params: page }),
+  getByPriceRange: (minPrice: number, maxPrice: number, page?: ProductListParams) =>
+    api.get<Product[]>('/products/price-range', { params: { minPrice, maxPrice, ...page } }),
 };
 
 // Categories API
 export const categoryApi = {
-  getAll: () => api.get<Category[]>('/categories'),
+  getAll: (page?: PageParams) => api.get<Category[]>('/categories', { params: page }),
+  getAllPages: () => fetchAllPages((page) => api.get<Category[]>('/categories', { params: page })),
   getById: (id: number) => api.get<Category>(`/categories/${id}`),
   create: (category: Category) => api.post<Category>('/categories', category),
   update: (id: number, category: Category) => api.put<Category>(`/categories/${id}`, category),
@@ -43,27 +101,57 @@ export const categoryApi = {
 
 // Inventory API
 export const inventoryApi = {
-  getAll: () => api.get<Inventory[]>('/inventory'),
+  getAll: (page?: PageParams) => api.get<Inventory[]>('/inventory', { params: page }),
   getById: (id: number) => api.get<Inventory>(`/inventory/${id}`),
-  getByProductId: (productId: number) => api.get<Inventory>(`/inventory/product/${productId}`),
+  getByProductId: (productId: number, locationId?: number) =>
+    api.get<Inventory>(`/inventory/product/${productId}`, { params: { locationId } }),
+  getLocationsByProductId: (productId: number) =>
+    api.get<Inventory[]>(`/inventory/product/${productId}/locations`),
+  getTotals: (page?: PageParams) => api.get<ProductStockTotal[]>('/inventory/totals', { params: page }),
+  transfer: (transfer: StockTransfer) =>
+    api.post<{ from: Inventory; to: Inventory }>('/inventory/transfers', transfer),
   create: (productId: number, inventory: Partial<Inventory>) =>
     api.post<Inventory>(`/inventory/product/${productId}`, inventory),
   update: (id: number, inventory: Partial<Inventory>) =>
     api.put<Inventory>(`/inventory/${id}`, inventory),
   updateStockLevel: (id: number, stockLevel: number) =>
     api.put<Inventory>(`/inventory/${id}/stock`, { stockLevel }),
-  updateStockByProductId: (productId: number, stockLevel: number) =>
-    api.put<Inventory>(`/inventory/product/${productId}/stock`, { stockLevel }),
+  updateStockByProductId: (productId: number, stockLevel: number, locationId?: number) =>
+    api.put<Inventory>(`/inventory/product/${productId}/stock`, { stockLevel }, { params: { locationId } }),
   addStock: (id: number, quantity: number) =>
     api.post<Inventory>(`/inventory/${id}/add-stock`, { quantity }),
   removeStock: (id: number, quantity: number) =>
     api.post<Inventory>(`/inventory/${id}/remove-stock`, { quantity }),
+  applyAdjustments: (adjustments: StockAdjustment[]) =>
+    api.post<StockAdjustmentResult[]>('/inventory/adjustments:batch', adjustments),
   delete: (id: number) => api.delete(`/inventory/${id}`),
-  getLowStock: () => api.get<Inventory[]>('/inventory/low-stock'),
-  getItemsBelowStock: (stockLevel: number) =>
-    api.get<Inventory[]>(`/inventory/below/${stockLevel}`),
-  getByLocation: (location: string) =>
-    api.get<Inventory[]>(`/inventory/location/${location}`),
+  getLowStock: (page?: PageParams) => api.get<Inventory[]>('/inventory/low-stock', { params: page }),
+  getItemsBelowStock: (stockLevel: number, page?: PageParams) =>
+    api.get<Inventory[]>(`/inventory/below/${stockLevel}`, { params: page }),
+  getByLocation: (location: string, page?: PageParams) =>
+    api.get<Inventory[]>(`/inventory/location/${location}`, { params: page }),
+  getByLocationId: (locationId: number, page?: PageParams) =>
+    api.get<Inventory[]>(`/inventory/location/id/${locationId}`, { params: page }),
+};
+
+// Locations API
+export const locationApi = {
+  getAll: (page?: PageParams) => api.get<Location[]>('/locations', { params: page }),
+  getById: (id: number) => api.get<Location>(`/locations/${id}`),
+  create: (location: Location) => api.post<Location>('/locations', location),
+};
+
+// Inventory change stream (Server-Sent Events). The browser reconnects on its own and
+// resumes after the last event it received; returns a function that closes the stream.
+export const subscribeToInventoryStream = (onEvent: (event: InventoryStreamEvent) => void) => {
+  const source = new EventSource(`${API_BASE_URL}/api/inventory/stream`);
+  source.onmessage = (message) => onEvent(JSON.parse(message.data));
+  return () => source.close();
+};
+
+// Dashboard API
+export const dashboardApi = {
+  getStats: () => api.get<DashboardStats>('/dashboard/stats'),
 };
 
 export default api;
@@ -19,11 +19,83 @@ export interface Product {
   updatedAt?: string;
 }
 
+// Counts from /api/products/facets, keyed by category id, size and color
+export interface ProductFacets {
+  total: number;
+  categories: Record<string, number>;
+  sizes: Record<string, number>;
+  colors: Record<string, number>;
+  priceBuckets: { min?: number; max?: number; count: number }[];
+}
+
+// A store or warehouse; sent by name to create it on first use
+export interface Location {
+  id?: number;
+  name?: string;
+  createdAt?: string;
+}
+
 export interface Inventory {
   id?: number;
   product: Product;
   stockLevel: number;
-  location?: string;
+  location?: Location;
   reorderLevel: number;
   lastUpdated?: string;
 }
+
+export interface DashboardStats {
+  totalProducts: number;
+  totalCategories: number;
+  totalInventory: number;
+  lowStockItems: number;
+}
+
+export interface StockAdjustment {
+  inventoryId?: number;
+  productId?: number;
+  sku?: string;
+  delta: number;
+}
+
+export interface StockAdjustmentResult {
+  line: number;
+  inventoryId?: number;
+  applied: boolean;
+  stockLevel?: number;
+  message?: string;
+}
+
+// Delta pushed by /api/inventory/stream; absent fields are unchanged
+export interface InventoryStreamEvent {
+  sequence: number;
+  type:
+    | 'INVENTORY_CHANGED'
+    | 'INVENTORY_DELETED'
+    | 'PRODUCT_SAVED'
+    | 'PRODUCT_DELETED'
+    | 'LOW_STOCK_ENTERED'
+    | 'LOW_STOCK_LEFT'
+    | 'RESYNC';
+  inventoryId?: number;
+  productId?: number;
+  stockLevel?: number;
+  reorderLevel?: number;
+  location?: Location;
+  product?: Product;
+  occurredAt: string;
+}
+
+// Stock of one product summed over all locations
+export interface ProductStockTotal {
+  productId: number;
+  totalStock: number;
+  locations: number;
+}
+
+export interface StockTransfer {
+  productId: number;
+  fromLocationId: number;
+  toLocationId: number;
+  quantity: number;
+}
@@ -0,0 +1,38 @@
+package com.apparels.management.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Caching runs outside the transaction advice, so a cache hit neither opens
+// a transaction nor borrows a pool connection.
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORY_LISTS = "categoryLists";
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCTS_BY_SKU = "productsBySku";
+    // Pre-serialised JSON list responses (see SerializedResponseCache)
+    public static final String RESPONSES = "responses";
+    
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${cache.categories.spec:maximumSize=1000,expireAfterWrite=1h,recordStats}") String categoriesSpec,
+            @Value("${cache.products.spec:maximumSize=50000,expireAfterWrite=10m,recordStats}") String productsSpec,
+            @Value("${cache.responses.spec:maximumSize=2000,expireAfterAccess=10m,recordStats}") String responsesSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CATEGORIES, Caffeine.from(categoriesSpec).build());
+        cacheManager.registerCustomCache(CATEGORY_LISTS, Caffeine.from(categoriesSpec).build());
+        cacheManager.registerCustomCache(PRODUCTS, Caffeine.from(productsSpec).build());
+        cacheManager.registerCustomCache(PRODUCTS_BY_SKU, Caffeine.from(productsSpec).build());
+        cacheManager.registerCustomCache(RESPONSES, Caffeine.from(responsesSpec).build());
+        return cacheManager;
+    }
+}
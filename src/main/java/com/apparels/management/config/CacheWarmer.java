@@ -0,0 +1,57 @@
+package com.apparels.management.config;
+
+import com.apparels.management.controller.KeysetPagination;
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Product;
+import com.apparels.management.repository.ProductRepository;
+import com.apparels.management.service.CategoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Fills the read caches at startup so the first requests do not all go to the database
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheWarmer {
+    
+    private final CategoryService categoryService;
+    private final ProductRepository productRepository;
+    private final CacheManager cacheManager;
+    private final KeysetPagination pagination;
+    
+    @Value("${cache.warm.products:1000}")
+    private int warmProducts;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        // First page of /api/categories as the controller requests it (page size plus look-ahead row)
+        List<Category> categories = categoryService.getAllCategories(0L, pagination.resolveLimit(null) + 1);
+        Cache categoriesById = cacheManager.getCache(CacheConfig.CATEGORIES);
+        categories.forEach(category -> categoriesById.put(category.getId(), category));
+        
+        int productCount = 0;
+        if (warmProducts > 0) {
+            Cache productsById = cacheManager.getCache(CacheConfig.PRODUCTS);
+            Cache productsBySku = cacheManager.getCache(CacheConfig.PRODUCTS_BY_SKU);
+            List<Product> products = ReplicaRoutingDataSource.onPrimary(
+                    () -> productRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(warmProducts)));
+            for (Product product : products) {
+                productsById.put(product.getId(), product);
+                if (product.getSku() != null) {
+                    productsBySku.put(product.getSku(), product);
+                }
+            }
+            productCount = products.size();
+        }
+        log.info("Warmed caches with {} categories and {} products", categories.size(), productCount);
+    }
+}
@@ -0,0 +1,59 @@
+package com.apparels.management.config;
+
+import com.apparels.management.service.CatalogueVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+// Conditional GET for the product and category read endpoints. The ETag comes
+// from the table version counters, so a matching If-None-Match is answered with
+// 304 before the handler runs: no database query and no JSON serialisation.
+// Within replicaWindow of a catalogue write the body is read from the primary, since
+// a lagging read replica could otherwise serve the old rows under the new tag.
+public class CatalogueETagInterceptor implements HandlerInterceptor {
+    
+    private static final String PRIMARY_PIN = CatalogueETagInterceptor.class.getName() + ".primaryPin";
+    
+    private final CatalogueVersions catalogueVersions;
+    private final String cacheControl;
+    private final Duration replicaWindow;
+    
+    public CatalogueETagInterceptor(CatalogueVersions catalogueVersions, String cacheControl, Duration replicaWindow) {
+        this.catalogueVersions = catalogueVersions;
+        this.cacheControl = cacheControl;
+        this.replicaWindow = replicaWindow;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return true;
+        }
+        
+        // Read before the handler queries, so a concurrent write can only make the tag older than the body
+        String etag = request.getRequestURI().startsWith(request.getContextPath() + "/api/categories")
+                ? catalogueVersions.categoriesETag()
+                : catalogueVersions.productsETag();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return false;
+        }
+        if (!replicaWindow.isZero() && catalogueVersions.changedWithin(replicaWindow)) {
+            request.setAttribute(PRIMARY_PIN, ReplicaRoutingDataSource.pinToPrimary());
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PRIMARY_PIN) instanceof ReplicaRoutingDataSource.Pin pin) {
+            request.removeAttribute(PRIMARY_PIN);
+            pin.close();
+        }
+    }
+}
@@ -27,6 +27,7 @@ public class CorsConfig {
         
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
+        config.addExposedHeader("X-Next-Cursor");
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
     }
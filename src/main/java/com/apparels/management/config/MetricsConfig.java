@@ -0,0 +1,21 @@
+package com.apparels.management.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Enables @Timed on the service classes and the JdbcTemplate repositories. Endpoints (http.server.requests), repository
+// queries (spring.data.repository.invocations), the Hikari pool and the caches are
+// instrumented by Spring Boot's actuator auto-configuration.
+@Configuration
+public class MetricsConfig {
+    
+    public static final String SERVICE_TIMER = "apparels.service";
+    public static final String JDBC_TIMER = "apparels.jdbc";
+    
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.apparels.management.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Indexes JPA cannot declare. On PostgreSQL, product name search (LOWER(name) LIKE '%...%')
+// is served by a pg_trgm GIN index, built without locking the table. Failures (e.g. no
+// privilege to create the extension) are logged and name search falls back to a scan.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostgresSearchIndexes {
+    
+    public static final String NAME_INDEX = "idx_products_name_trgm";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${search.name-index.create:true}")
+    private boolean createNameIndex;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void create() {
+        if (!createNameIndex || !isPostgres()) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + NAME_INDEX
+                    + " ON products USING gin (lower(name) gin_trgm_ops)");
+        } catch (DataAccessException e) {
+            log.warn("Could not create {}, product name search will scan the table: {}", NAME_INDEX, e.getMessage());
+        }
+    }
+    
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(product);
+    }
+}
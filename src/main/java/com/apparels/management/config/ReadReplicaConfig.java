@@ -0,0 +1,103 @@
+package com.apparels.management.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Read replica routing (datasource.replica.enabled=true). Replaces the auto-configured
+// DataSource with two Hikari pools, "primary" (spring.datasource.*) and "replica"
+// (datasource.replica.*), each sized on its own, behind a ReplicaRoutingDataSource
+// that sends @Transactional(readOnly = true) work to the replica.
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+    
+    public static final String PRIMARY_DATA_SOURCE = "primaryDataSource";
+    public static final String REPLICA_DATA_SOURCE = "replicaDataSource";
+    
+    @Bean(PRIMARY_DATA_SOURCE)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean(REPLICA_DATA_SOURCE)
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties primaryProperties,
+            @Value("${datasource.replica.url}") String url,
+            @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(primaryProperties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier(REPLICA_DATA_SOURCE) DataSource replica,
+            @Value("${datasource.replica.lag-query:}") String lagQuery,
+            @Value("${datasource.replica.max-lag-ms:1000}") long maxLagMillis,
+            MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replica, lagQuery.isBlank() ? ReplicaLagMonitor.POSTGRES_LAG_QUERY : lagQuery,
+                Duration.ofMillis(maxLagMillis), meterRegistry);
+    }
+    
+    // The lazy proxy defers borrowing a connection to the first statement, after the
+    // transaction manager has marked the transaction read-only
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier(PRIMARY_DATA_SOURCE) DataSource primary,
+            @Qualifier(REPLICA_DATA_SOURCE) DataSource replica,
+            ReplicaLagMonitor replicaLagMonitor,
+            MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+    
+    // Spring Boot's JpaTransactionManager, with a dialect that keeps replica reads out of
+    // the second-level cache. The dialect is set after afterPropertiesSet, which would
+    // otherwise replace it with the entity manager factory's.
+    @Bean
+    public PlatformTransactionManager transactionManager(
+            EntityManagerFactory entityManagerFactory,
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory) {
+            @Override
+            public void afterPropertiesSet() {
+                super.afterPropertiesSet();
+                setJpaDialect(new ReplicaAwareJpaDialect());
+            }
+        };
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+}
@@ -0,0 +1,27 @@
+package com.apparels.management.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+// Read-only transactions may read from a lagging replica, so their sessions use the
+// second-level cache but never put into it: a row loaded from the replica after an
+// update could otherwise replace the newer state the update left in the cache.
+// Sessions last one transaction (open-in-view is off), so the mode needs no reset.
+public class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+    
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (definition.isReadOnly()) {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+        return transactionData;
+    }
+}
@@ -0,0 +1,77 @@
+package com.apparels.management.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+// Measures the replication lag of the read replica with lagQuery (seconds behind the
+// primary) and decides whether read-only transactions may use it. The replica is
+// unusable until the first check succeeds, while it is more than maxLag behind and
+// after a failed check or connection attempt, until the next successful check.
+@Slf4j
+public class ReplicaLagMonitor {
+    
+    // Zero once the standby has replayed everything it received, so an idle primary
+    // does not make the replica look stale
+    public static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+            + "THEN 0 ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+    
+    private final DataSource replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean usable;
+    
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        Gauge.builder("apparels.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replication lag of the read replica (NaN while it is unreachable)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(lagQuery)) {
+            result.next();
+            recordLag(Duration.ofMillis(Math.round(result.getDouble(1) * 1000)));
+        } catch (SQLException | RuntimeException e) {
+            markUnavailable(e);
+        }
+    }
+    
+    public void recordLag(Duration lag) {
+        boolean withinLimit = lag.compareTo(maxLag) <= 0;
+        if (withinLimit != usable) {
+            log.info("Read replica {} ({} ms behind, limit {} ms)", withinLimit ? "in use" : "bypassed",
+                    lag.toMillis(), maxLag.toMillis());
+        }
+        lagSeconds = lag.toMillis() / 1000.0;
+        usable = withinLimit;
+    }
+    
+    public void markUnavailable(Exception cause) {
+        if (usable) {
+            log.warn("Read replica unavailable, reading from the primary: {}", cause.getMessage());
+        }
+        lagSeconds = Double.NaN;
+        usable = false;
+    }
+    
+    public boolean isUsable() {
+        return usable;
+    }
+}
@@ -0,0 +1,116 @@
+package com.apparels.management.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Hands read-only transactions a replica connection while the replica is within its
+// allowed lag, and everything else a primary connection. It sits behind a
+// LazyConnectionDataSourceProxy, so the connection is chosen at the first statement,
+// once the transaction's read-only flag is known. A replica that fails to hand out a
+// connection is marked unusable and the primary is used instead.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+    
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+    
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.primaryConnections = connectionCounter(meterRegistry, PRIMARY);
+        this.replicaConnections = connectionCounter(meterRegistry, REPLICA);
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+    
+    public interface Pin extends AutoCloseable {
+        @Override
+        void close();
+    }
+    
+    // Runs the work on the primary even in read-only transactions. For readers whose
+    // result outlives the transaction (caches, in-memory counters), where a lagging
+    // replica would keep an old value after a newer write.
+    public static <T> T onPrimary(Supplier<T> work) {
+        try (Pin pin = pinToPrimary()) {
+            return work.get();
+        }
+    }
+    
+    // Keeps the current thread on the primary until the pin is closed
+    public static Pin pinToPrimary() {
+        Boolean previous = PINNED_TO_PRIMARY.get();
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        return () -> {
+            if (previous == null) {
+                PINNED_TO_PRIMARY.remove();
+            } else {
+                PINNED_TO_PRIMARY.set(previous);
+            }
+        };
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean replicaRead = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && PINNED_TO_PRIMARY.get() == null
+                && lagMonitor.isUsable();
+        return replicaRead ? REPLICA : PRIMARY;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (REPLICA.equals(determineCurrentLookupKey())) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException e) {
+                lagMonitor.markUnavailable(e);
+            }
+        }
+        Connection connection = primary.getConnection();
+        primaryConnections.increment();
+        return connection;
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (REPLICA.equals(determineCurrentLookupKey())) {
+            try {
+                Connection connection = replica.getConnection(username, password);
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException e) {
+                lagMonitor.markUnavailable(e);
+            }
+        }
+        Connection connection = primary.getConnection(username, password);
+        primaryConnections.increment();
+        return connection;
+    }
+    
+    private static Counter connectionCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("apparels.datasource.connections")
+                .description("Connections handed out by the read replica router")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,60 @@
+package com.apparels.management.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Hibernate second-level cache (JCache, backed by Caffeine) for categories and products,
+// which are read far more often than written: the category on every product write and
+// with every product load, products by id and SKU. The regions are created here with
+// their size limits; cached query results are dropped whenever one of their tables changes.
+@Configuration
+public class SecondLevelCacheConfig {
+    
+    public static final String CATEGORIES = "categories";
+    public static final String PRODUCTS = "products";
+    
+    // One manager per application context, so contexts on different databases (tests) never share entries
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${cache.hibernate.categories.max-size:1000}") long categoriesMaxSize,
+            @Value("${cache.hibernate.products.max-size:50000}") long productsMaxSize,
+            @Value("${cache.hibernate.queries.max-size:10000}") long queriesMaxSize) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("apparels:second-level-cache:" + UUID.randomUUID()),
+                        SecondLevelCacheConfig.class.getClassLoader());
+        cacheManager.createCache(CATEGORIES, region(OptionalLong.of(categoriesMaxSize)));
+        cacheManager.createCache(PRODUCTS, region(OptionalLong.of(productsMaxSize)));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(OptionalLong.of(queriesMaxSize)));
+        // Never evicted: a lost table timestamp would let outdated query results through
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                region(OptionalLong.empty()));
+        return cacheManager;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManager(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+    
+    // Entries are kept by reference: Hibernate caches immutable disassembled state, not entities
+    private static CaffeineConfiguration<Object, Object> region(OptionalLong maximumSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maximumSize);
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,42 @@
+package com.apparels.management.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+// Virtual-thread request execution (spring.threads.virtual.enabled=true).
+// Spring Boot then runs Tomcat requests, @Async tasks and scheduled jobs on
+// virtual threads; this configuration adds a concurrency limiter in front of
+// the DataSource so excess requests park cheaply instead of piling up in the pool.
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    
+    @Bean
+    public static BeanPostProcessor dataSourceConcurrencyLimiter(Environment environment) {
+        int maxConcurrency = environment.getProperty("datasource.concurrency-limit.max-concurrent", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        int maxReplicaConcurrency = environment.getProperty("datasource.replica.hikari.maximum-pool-size", Integer.class, 10);
+        long timeoutMillis = environment.getProperty("datasource.concurrency-limit.timeout-ms", Long.class, 30000L);
+        
+        // Only the pools are limited, not the proxies in front of them (see ReadReplicaConfig)
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+                    int limit = ReadReplicaConfig.REPLICA_DATA_SOURCE.equals(beanName) ? maxReplicaConcurrency : maxConcurrency;
+                    log.info("Limiting DataSource '{}' to {} concurrent connections", beanName, limit);
+                    return new ConcurrencyLimitingDataSource(dataSource, limit, timeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+}
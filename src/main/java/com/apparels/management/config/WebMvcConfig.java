@@ -0,0 +1,40 @@
+package com.apparels.management.config;
+
+import com.apparels.management.service.CatalogueVersions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+    
+    private final CatalogueVersions catalogueVersions;
+    
+    // no-cache lets browsers and nginx store responses but revalidate them on every use
+    @Value("${catalogue.http-cache.cache-control:no-cache}")
+    private String catalogueCacheControl;
+    
+    @Value("${datasource.replica.enabled:false}")
+    private boolean replicaEnabled;
+    
+    // Longest a replica read may trail the primary: the allowed lag plus one lag check interval
+    @Value("${datasource.replica.max-lag-ms:1000}")
+    private long replicaMaxLagMillis;
+    
+    @Value("${datasource.replica.lag-check-interval-ms:1000}")
+    private long replicaLagCheckIntervalMillis;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        Duration replicaWindow = replicaEnabled
+                ? Duration.ofMillis(replicaMaxLagMillis + replicaLagCheckIntervalMillis)
+                : Duration.ZERO;
+        registry.addInterceptor(new CatalogueETagInterceptor(catalogueVersions, catalogueCacheControl, replicaWindow))
+                .addPathPatterns("/api/products", "/api/products/**", "/api/categories", "/api/categories/**");
+    }
+}
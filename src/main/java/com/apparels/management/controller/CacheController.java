@@ -0,0 +1,62 @@
+package com.apparels.management.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+    
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+    
+    // Spring caches by name, then Hibernate second-level cache regions as "hibernate:<region>"
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Map<String, Object>>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof CaffeineCache caffeineCache) {
+                CacheStats cacheStats = caffeineCache.getNativeCache().stats();
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("size", caffeineCache.getNativeCache().estimatedSize());
+                entry.put("hits", cacheStats.hitCount());
+                entry.put("misses", cacheStats.missCount());
+                entry.put("hitRate", cacheStats.hitRate());
+                entry.put("evictions", cacheStats.evictionCount());
+                stats.put(name, entry);
+            }
+        }
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            if (regionStats != null) {
+                long lookups = regionStats.getHitCount() + regionStats.getMissCount();
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("size", regionStats.getElementCountInMemory());
+                entry.put("hits", regionStats.getHitCount());
+                entry.put("misses", regionStats.getMissCount());
+                entry.put("hitRate", lookups == 0 ? 0.0 : (double) regionStats.getHitCount() / lookups);
+                entry.put("puts", regionStats.getPutCount());
+                stats.put("hibernate:" + region, entry);
+            }
+        }
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -1,8 +1,10 @@
 package com.apparels.management.controller;
 
 import com.apparels.management.entity.Category;
+import com.apparels.management.service.CatalogueVersions;
 import com.apparels.management.service.CategoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,10 +17,17 @@ import java.util.List;
 public class CategoryController {
     
     private final CategoryService categoryService;
+    private final KeysetPagination pagination;
+    private final SerializedResponseCache responseCache;
+    private final CatalogueVersions catalogueVersions;
     
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<byte[]> getAllCategories(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.page(List.of("categories"), catalogueVersions.categoriesETag(), cursor, limit,
+                acceptEncoding, categoryService::getAllCategories, Category::getId);
     }
     
     @GetMapping("/{id}")
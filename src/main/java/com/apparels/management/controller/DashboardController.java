@@ -0,0 +1,22 @@
+package com.apparels.management.controller;
+
+import com.apparels.management.dto.DashboardStats;
+import com.apparels.management.service.DashboardStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+    
+    private final DashboardStatsService dashboardStatsService;
+    
+    @GetMapping("/stats")
+    public ResponseEntity<DashboardStats> getStats() {
+        return ResponseEntity.ok(dashboardStatsService.getStats());
+    }
+}
@@ -0,0 +1,62 @@
+package com.apparels.management.controller;
+
+import com.apparels.management.service.CatalogueExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Full-catalogue exports streamed to the client as they are read from the database.
+// Responses are gzip-encoded when the client sends Accept-Encoding: gzip.
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+    
+    private final CatalogueExportService catalogueExportService;
+    
+    @GetMapping("/products")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CatalogueExportService.Format exportFormat = CatalogueExportService.Format.from(format);
+        return stream("products", exportFormat, acceptEncoding,
+                out -> catalogueExportService.writeProducts(exportFormat, out));
+    }
+    
+    @GetMapping("/inventory")
+    public ResponseEntity<StreamingResponseBody> exportInventory(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CatalogueExportService.Format exportFormat = CatalogueExportService.Format.from(format);
+        return stream("inventory", exportFormat, acceptEncoding,
+                out -> catalogueExportService.writeInventory(exportFormat, out));
+    }
+    
+    private ResponseEntity<StreamingResponseBody> stream(String name, CatalogueExportService.Format format,
+                                                         String acceptEncoding, StreamingResponseBody body) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.getExtension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(body);
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> writeGzip(body, out));
+    }
+    
+    private static void writeGzip(StreamingResponseBody body, OutputStream out) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+        body.writeTo(gzip);
+        gzip.finish();
+    }
+}
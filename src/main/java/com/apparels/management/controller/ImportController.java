@@ -0,0 +1,40 @@
+package com.apparels.management.controller;
+
+import com.apparels.management.dto.ImportReport;
+import com.apparels.management.service.ProductImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+// Bulk catalogue import. The request body is read as a stream, so its size is
+// bounded by the database rather than by memory.
+@RestController
+@RequestMapping("/api/import")
+@RequiredArgsConstructor
+public class ImportController {
+    
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    
+    private final ProductImportService productImportService;
+    
+    @PostMapping(value = "/products", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<ImportReport> importProductsCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(productImportService.importCsv(body));
+    }
+    
+    @PostMapping(value = "/products", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportReport> importProductsNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(productImportService.importNdjson(body));
+    }
+    
+    // Progress of imports still in flight
+    @GetMapping("/jobs")
+    public ResponseEntity<List<ImportReport>> getRunningJobs() {
+        return ResponseEntity.ok(productImportService.getRunningJobs());
+    }
+}
@@ -1,12 +1,25 @@
 package com.apparels.management.controller;
 
+import com.apparels.management.dto.InventoryRow;
+import com.apparels.management.dto.InventoryStreamEvent;
+import com.apparels.management.dto.ProductStockTotal;
+import com.apparels.management.dto.StockAdjustmentRequest;
+import com.apparels.management.dto.StockTransferRequest;
 import com.apparels.management.entity.Inventory;
+import com.apparels.management.entity.InventoryMovement;
+import com.apparels.management.service.InventoryEventBus;
+import com.apparels.management.service.InventoryLedgerService;
 import com.apparels.management.service.InventoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -16,10 +29,51 @@ import java.util.Map;
 public class InventoryController {
     
     private final InventoryService inventoryService;
+    private final InventoryLedgerService inventoryLedgerService;
+    private final InventoryEventBus inventoryEventBus;
+    private final KeysetPagination pagination;
     
     @GetMapping
-    public ResponseEntity<List<Inventory>> getAllInventory() {
-        return ResponseEntity.ok(inventoryService.getAllInventory());
+    public ResponseEntity<List<InventoryRow>> getAllInventory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pagination.page(cursor, limit, inventoryService::getAllInventory, InventoryRow::getId);
+    }
+    
+    // Server-Sent Events of committed inventory and product changes. EventSource
+    // clients reconnect with Last-Event-ID and receive the events they missed.
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamChanges(@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter();
+        InventoryEventBus.Subscription subscription;
+        try {
+            subscription = inventoryEventBus.subscribe(lastEventId, new InventoryEventBus.Subscriber() {
+                @Override
+                public void deliver(List<InventoryStreamEvent> events) throws IOException {
+                    if (events.isEmpty()) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    }
+                    for (InventoryStreamEvent event : events) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.getSequence()))
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+                }
+                
+                @Override
+                public void closed(boolean dropped) {
+                    emitter.complete();
+                }
+            });
+        } catch (IllegalStateException e) {
+            // No JSON message body: it could not be written as text/event-stream
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "30").build();
+        }
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        // Stops reverse proxies (nginx) from buffering the stream
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
     }
     
     @GetMapping("/{id}")
@@ -29,13 +83,36 @@ public class InventoryController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    // The product's row at locationId, or at the default location
     @GetMapping("/product/{productId}")
-    public ResponseEntity<Inventory> getInventoryByProductId(@PathVariable Long productId) {
-        return inventoryService.getInventoryByProductId(productId)
+    public ResponseEntity<Inventory> getInventoryByProductId(
+            @PathVariable Long productId,
+            @RequestParam(required = false) Long locationId) {
+        return inventoryService.getInventoryByProductId(productId, locationId)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping("/product/{productId}/locations")
+    public ResponseEntity<List<InventoryRow>> getInventoryRowsByProductId(@PathVariable Long productId) {
+        return ResponseEntity.ok(inventoryService.getInventoryRowsByProductId(productId));
+    }
+    
+    @GetMapping("/product/{productId}/total")
+    public ResponseEntity<ProductStockTotal> getStockTotal(@PathVariable Long productId) {
+        return inventoryService.getStockTotal(productId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    // Stock per product summed over all locations (keyset paginated by product id)
+    @GetMapping("/totals")
+    public ResponseEntity<List<ProductStockTotal>> getStockTotals(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pagination.page(cursor, limit, inventoryService::getStockTotals, ProductStockTotal::getProductId);
+    }
+    
     @PostMapping("/product/{productId}")
     public ResponseEntity<?> createInventory(@PathVariable Long productId, @RequestBody Inventory inventory) {
         try {
@@ -83,6 +160,7 @@ public class InventoryController {
     @PutMapping("/product/{productId}/stock")
     public ResponseEntity<?> updateStockLevelByProductId(
             @PathVariable Long productId, 
+            @RequestParam(required = false) Long locationId,
             @RequestBody Map<String, Integer> request) {
         try {
             Integer stockLevel = request.get("stockLevel");
@@ -90,7 +168,7 @@ public class InventoryController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(java.util.Map.of("message", "Stock level is required"));
             }
-            Inventory updated = inventoryService.updateStockLevelByProductId(productId, stockLevel);
+            Inventory updated = inventoryService.updateStockLevelByProductId(productId, locationId, stockLevel);
             return ResponseEntity.ok(updated);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -142,6 +220,64 @@ public class InventoryController {
         }
     }
     
+    @PostMapping("/adjustments:batch")
+    public ResponseEntity<?> applyAdjustments(@RequestBody List<StockAdjustmentRequest> adjustments) {
+        try {
+            return ResponseEntity.ok(inventoryService.applyAdjustments(adjustments));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(java.util.Map.of("message", e.getMessage()));
+        }
+    }
+    
+    // Moves stock of a product between locations atomically
+    @PostMapping("/transfers")
+    public ResponseEntity<?> transferStock(@RequestBody StockTransferRequest request) {
+        try {
+            return ResponseEntity.ok(inventoryService.transferStock(request));
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(java.util.Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(java.util.Map.of("message", e.getMessage()));
+        }
+    }
+    
+    // Stock movement journal of one inventory row, oldest first (keyset paginated via cursor/limit)
+    @GetMapping("/{id}/movements")
+    public ResponseEntity<List<InventoryMovement>> getMovements(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pagination.page(cursor, limit,
+                (afterId, pageSize) -> inventoryLedgerService.getMovements(id, afterId, pageSize),
+                InventoryMovement::getId);
+    }
+    
+    @GetMapping("/{id}/stock-at")
+    public ResponseEntity<?> getStockLevelAt(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        try {
+            int stockLevel = inventoryLedgerService.getStockLevelAt(id, at);
+            return ResponseEntity.ok(Map.of("inventoryId", id, "at", at, "stockLevel", stockLevel));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(java.util.Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/{id}/rebuild")
+    public ResponseEntity<?> rebuildStockLevel(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(inventoryLedgerService.rebuild(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(java.util.Map.of("message", e.getMessage()));
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteInventory(@PathVariable Long id) {
         try {
@@ -154,18 +290,46 @@ public class InventoryController {
     }
     
     @GetMapping("/low-stock")
-    public ResponseEntity<List<Inventory>> getLowStockItems() {
-        return ResponseEntity.ok(inventoryService.getLowStockItems());
+    public ResponseEntity<List<InventoryRow>> getLowStockItems(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pagination.page(cursor, limit, inventoryService::getLowStockItems, InventoryRow::getId);
+    }
+    
+    // Not paginated: the rows furthest below their reorder level, most severe first
+    @GetMapping("/low-stock/most-severe")
+    public ResponseEntity<List<InventoryRow>> getMostSevereLowStockItems(@RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(inventoryService.getMostSevereLowStockItems(pagination.resolveLimit(limit)));
     }
     
     @GetMapping("/below/{stockLevel}")
-    public ResponseEntity<List<Inventory>> getItemsBelowStockLevel(@PathVariable Integer stockLevel) {
-        return ResponseEntity.ok(inventoryService.getItemsBelowStockLevel(stockLevel));
+    public ResponseEntity<List<InventoryRow>> getItemsBelowStockLevel(
+            @PathVariable Integer stockLevel,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pagination.page(cursor, limit,
+                (afterId, fetchSize) -> inventoryService.getItemsBelowStockLevel(stockLevel, afterId, fetchSize),
+                InventoryRow::getId);
     }
     
+    // By location name; /location/id/{locationId} takes the id
     @GetMapping("/location/{location}")
-    public ResponseEntity<List<Inventory>> getInventoryByLocation(@PathVariable String location) {
-        return ResponseEntity.ok(inventoryService.getInventoryByLocation(location));
+    public ResponseEntity<List<InventoryRow>> getInventoryByLocation(
+            @PathVariable String location,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pagination.page(cursor, limit,
+                (afterId, fetchSize) -> inventoryService.getInventoryByLocation(location, afterId, fetchSize),
+                InventoryRow::getId);
+    }
+    
+    @GetMapping("/location/id/{locationId}")
+    public ResponseEntity<List<InventoryRow>> getInventoryByLocationId(
+            @PathVariable Long locationId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pagination.page(cursor, limit,
+                (afterId, fetchSize) -> inventoryService.getInventoryByLocationId(locationId, afterId, fetchSize),
+                InventoryRow::getId);
     }
 }
-
@@ -0,0 +1,87 @@
+package com.apparels.management.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+// Keyset (cursor) pagination on the entity id shared by the list endpoints.
+// Pages are fetched with "id > :afterId ORDER BY id" and the cursor of the
+// next page is returned in the X-Next-Cursor header; the body stays a plain list.
+@Component
+public class KeysetPagination {
+    
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    
+    private final int defaultLimit;
+    private final int maxLimit;
+    
+    public KeysetPagination(@Value("${pagination.default-limit:100}") int defaultLimit,
+                            @Value("${pagination.max-limit:1000}") int maxLimit) {
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+    
+    // Fetches one row more than requested to find out whether another page exists
+    public <T> ResponseEntity<List<T>> page(String cursor, Integer limit,
+                                            BiFunction<Long, Integer, List<T>> fetch,
+                                            Function<T, Long> idOf) {
+        int pageSize = resolveLimit(limit);
+        List<T> rows = fetch.apply(decodeCursor(cursor), pageSize + 1);
+        
+        if (rows.size() <= pageSize) {
+            return ResponseEntity.ok(rows);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, encodeCursor(idOf.apply(items.get(pageSize - 1))))
+                .body(items);
+    }
+    
+    // Sorted listings (?sort=...) return only their first limit rows, without a cursor
+    public <T> ResponseEntity<List<T>> top(String cursor, Integer limit, IntFunction<List<T>> fetch) {
+        rejectCursor(cursor);
+        return ResponseEntity.ok(fetch.apply(resolveLimit(limit)));
+    }
+    
+    public static void rejectCursor(String cursor) {
+        if (cursor != null && !cursor.isEmpty()) {
+            throw new IllegalArgumentException("Sorted listings return the first limit rows only; cursor is not supported with sort");
+        }
+    }
+    
+    public int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Math.min(limit, maxLimit);
+    }
+    
+    public static String encodeCursor(Long id) {
+        return ENCODER.encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // No cursor means the first page; ids are positive identity values
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(DECODER.decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.apparels.management.controller;
+
+import com.apparels.management.entity.Location;
+import com.apparels.management.service.LocationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/locations")
+@RequiredArgsConstructor
+public class LocationController {
+    
+    private final LocationService locationService;
+    private final KeysetPagination pagination;
+    
+    @GetMapping
+    public ResponseEntity<List<Location>> getAllLocations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pagination.page(cursor, limit, locationService::getAllLocations, Location::getId);
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<Location> getLocationById(@PathVariable Long id) {
+        return locationService.getLocationById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping
+    public ResponseEntity<?> createLocation(@RequestBody Location location) {
+        try {
+            Location created = locationService.createLocation(location);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(java.util.Map.of("message", e.getMessage()));
+        }
+    }
+}
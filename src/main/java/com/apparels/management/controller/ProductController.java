@@ -1,13 +1,19 @@
 package com.apparels.management.controller;
 
+import com.apparels.management.dto.ProductFacets;
+import com.apparels.management.dto.ProductSummary;
 import com.apparels.management.entity.Product;
+import com.apparels.management.search.ProductSort;
+import com.apparels.management.service.CatalogueVersions;
 import com.apparels.management.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
 
 @RestController
@@ -16,10 +22,24 @@ import java.util.List;
 public class ProductController {
     
     private final ProductService productService;
+    private final KeysetPagination pagination;
+    private final SerializedResponseCache responseCache;
+    private final CatalogueVersions catalogueVersions;
     
+    // ?sort=price|name|createdAt (prefix - for descending) on the list endpoints returns the
+    // first limit rows in that order instead of id-ordered pages, e.g. ?sort=-createdAt&limit=20
+    // for the newest arrivals
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<List<ProductSummary>> getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort) {
+        ProductSort order = ProductSort.parse(sort);
+        if (order != null) {
+            return pagination.top(cursor, limit,
+                    fetchSize -> productService.getTopProducts(null, null, null, null, null, null, null, order, fetchSize));
+        }
+        return pagination.page(cursor, limit, productService::getAllProducts, ProductSummary::getId);
     }
     
     @GetMapping("/{id}")
@@ -70,50 +90,145 @@ public class ProductController {
         }
     }
     
-    // Search and filter endpoints
+    // Search and filter endpoints (keyset paginated via cursor/limit)
+    // Repeated queries are served from the pre-serialised response cache
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(
+    public ResponseEntity<byte[]> searchProducts(
             @RequestParam(required = false) String name,
+            @RequestParam(required = false) String text,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) String size,
-            @RequestParam(required = false) String color) {
+            @RequestParam(required = false) String color,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         
-        List<Product> products = productService.searchProducts(name, categoryId, minPrice, maxPrice, size, color);
-        return ResponseEntity.ok(products);
+        ProductSort order = ProductSort.parse(sort);
+        if (order != null) {
+            return responseCache.top(Arrays.asList("search", name, text, categoryId, minPrice, maxPrice, size, color, order),
+                    catalogueVersions.productsETag(), cursor, limit, acceptEncoding,
+                    fetchSize -> productService.getTopProducts(name, text, categoryId, minPrice, maxPrice, size, color, order, fetchSize));
+        }
+        return responseCache.page(Arrays.asList("search", name, text, categoryId, minPrice, maxPrice, size, color),
+                catalogueVersions.productsETag(), cursor, limit, acceptEncoding,
+                (afterId, fetchSize) -> productService.searchProducts(name, text, categoryId, minPrice, maxPrice, size, color, afterId, fetchSize),
+                ProductSummary::getId);
+    }
+    
+    // Counts per category, size, color and price bucket for the search filters
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacets> getFacets(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String text,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String size,
+            @RequestParam(required = false) String color) {
+        return ResponseEntity.ok(productService.getFacets(name, text, categoryId, minPrice, maxPrice, size, color));
     }
     
     @GetMapping("/search/name")
-    public ResponseEntity<List<Product>> searchProductsByName(@RequestParam String name) {
-        return ResponseEntity.ok(productService.searchProductsByName(name));
+    public ResponseEntity<List<ProductSummary>> searchProductsByName(
+            @RequestParam String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort) {
+        ProductSort order = ProductSort.parse(sort);
+        if (order != null) {
+            return pagination.top(cursor, limit,
+                    fetchSize -> productService.getTopProducts(name, null, null, null, null, null, null, order, fetchSize));
+        }
+        return pagination.page(cursor, limit,
+                (afterId, fetchSize) -> productService.searchProductsByName(name, afterId, fetchSize),
+                ProductSummary::getId);
     }
     
+    // ?sort=price gives the cheapest products of the category
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable Long categoryId) {
-        return ResponseEntity.ok(productService.getProductsByCategory(categoryId));
+    public ResponseEntity<byte[]> getProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ProductSort order = ProductSort.parse(sort);
+        if (order != null) {
+            return responseCache.top(List.of("category", categoryId, order), catalogueVersions.productsETag(), cursor,
+                    limit, acceptEncoding,
+                    fetchSize -> productService.getTopProducts(null, null, categoryId, null, null, null, null, order, fetchSize));
+        }
+        return responseCache.page(List.of("category", categoryId), catalogueVersions.productsETag(), cursor, limit,
+                acceptEncoding,
+                (afterId, fetchSize) -> productService.getProductsByCategory(categoryId, afterId, fetchSize),
+                ProductSummary::getId);
     }
     
     @GetMapping("/category/name/{categoryName}")
-    public ResponseEntity<List<Product>> getProductsByCategoryName(@PathVariable String categoryName) {
-        return ResponseEntity.ok(productService.getProductsByCategoryName(categoryName));
+    public ResponseEntity<List<ProductSummary>> getProductsByCategoryName(
+            @PathVariable String categoryName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort) {
+        ProductSort order = ProductSort.parse(sort);
+        if (order != null) {
+            return pagination.top(cursor, limit,
+                    fetchSize -> productService.getTopProductsByCategoryName(categoryName, order, fetchSize));
+        }
+        return pagination.page(cursor, limit,
+                (afterId, fetchSize) -> productService.getProductsByCategoryName(categoryName, afterId, fetchSize),
+                ProductSummary::getId);
     }
     
     @GetMapping("/price-range")
-    public ResponseEntity<List<Product>> getProductsByPriceRange(
+    public ResponseEntity<List<ProductSummary>> getProductsByPriceRange(
             @RequestParam BigDecimal minPrice,
-            @RequestParam BigDecimal maxPrice) {
-        return ResponseEntity.ok(productService.getProductsByPriceRange(minPrice, maxPrice));
+            @RequestParam BigDecimal maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort) {
+        ProductSort order = ProductSort.parse(sort);
+        if (order != null) {
+            return pagination.top(cursor, limit,
+                    fetchSize -> productService.getTopProducts(null, null, null, minPrice, maxPrice, null, null, order, fetchSize));
+        }
+        return pagination.page(cursor, limit,
+                (afterId, fetchSize) -> productService.getProductsByPriceRange(minPrice, maxPrice, afterId, fetchSize),
+                ProductSummary::getId);
     }
     
     @GetMapping("/size/{size}")
-    public ResponseEntity<List<Product>> getProductsBySize(@PathVariable String size) {
-        return ResponseEntity.ok(productService.getProductsBySize(size));
+    public ResponseEntity<List<ProductSummary>> getProductsBySize(
+            @PathVariable String size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort) {
+        ProductSort order = ProductSort.parse(sort);
+        if (order != null) {
+            return pagination.top(cursor, limit,
+                    fetchSize -> productService.getTopProducts(null, null, null, null, null, size, null, order, fetchSize));
+        }
+        return pagination.page(cursor, limit,
+                (afterId, fetchSize) -> productService.getProductsBySize(size, afterId, fetchSize),
+                ProductSummary::getId);
     }
     
     @GetMapping("/color/{color}")
-    public ResponseEntity<List<Product>> getProductsByColor(@PathVariable String color) {
-        return ResponseEntity.ok(productService.getProductsByColor(color));
+    public ResponseEntity<List<ProductSummary>> getProductsByColor(
+            @PathVariable String color,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort) {
+        ProductSort order = ProductSort.parse(sort);
+        if (order != null) {
+            return pagination.top(cursor, limit,
+                    fetchSize -> productService.getTopProducts(null, null, null, null, null, null, color, order, fetchSize));
+        }
+        return pagination.page(cursor, limit,
+                (afterId, fetchSize) -> productService.getProductsByColor(color, afterId, fetchSize),
+                ProductSummary::getId);
     }
 }
-
@@ -0,0 +1,112 @@
+package com.apparels.management.controller;
+
+import com.apparels.management.config.CacheConfig;
+import com.apparels.management.config.ReplicaRoutingDataSource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Keeps hot keyset-paginated list responses as serialised JSON bytes (plus a gzip
+// copy for larger bodies), so a hit skips both the query and Jackson and the bytes
+// are written to the response as they are. Each entry is stamped with the catalogue
+// version it was built under and is rebuilt once the version moves on; the services
+// also clear the cache on writes. Misses are read from the primary, so a lagging read
+// replica cannot store an old page under the new version.
+@Component
+public class SerializedResponseCache {
+    
+    private record Entry(String version, byte[] json, byte[] gzip, String nextCursor) {
+    }
+    
+    private final Cache cache;
+    private final KeysetPagination pagination;
+    private final ObjectMapper objectMapper;
+    private final int gzipMinSize;
+    
+    public SerializedResponseCache(CacheManager cacheManager, KeysetPagination pagination, ObjectMapper objectMapper,
+                                   @Value("${cache.responses.gzip-min-size:1024}") int gzipMinSize) {
+        this.cache = cacheManager.getCache(CacheConfig.RESPONSES);
+        this.pagination = pagination;
+        this.objectMapper = objectMapper;
+        this.gzipMinSize = gzipMinSize;
+    }
+    
+    // key identifies the endpoint and its filters; the page position is added here.
+    // version is the catalogue version the response depends on, read before fetching.
+    public <T> ResponseEntity<byte[]> page(List<?> key, String version, String cursor, Integer limit,
+                                           String acceptEncoding,
+                                           BiFunction<Long, Integer, List<T>> fetch,
+                                           Function<T, Long> idOf) {
+        List<Object> cacheKey = new ArrayList<>(key);
+        cacheKey.add(KeysetPagination.decodeCursor(cursor));
+        cacheKey.add(pagination.resolveLimit(limit));
+        return respond(cacheKey, version, acceptEncoding, () -> pagination.page(cursor, limit, fetch, idOf));
+    }
+    
+    // The first limit rows of a sorted listing, cached like a page
+    public <T> ResponseEntity<byte[]> top(List<?> key, String version, String cursor, Integer limit,
+                                          String acceptEncoding, IntFunction<List<T>> fetch) {
+        KeysetPagination.rejectCursor(cursor);
+        List<Object> cacheKey = new ArrayList<>(key);
+        cacheKey.add("top");
+        cacheKey.add(pagination.resolveLimit(limit));
+        return respond(cacheKey, version, acceptEncoding, () -> pagination.top(cursor, limit, fetch));
+    }
+    
+    private ResponseEntity<byte[]> respond(List<Object> cacheKey, String version, String acceptEncoding,
+                                           Supplier<ResponseEntity<? extends List<?>>> fetch) {
+        Entry entry = cache.get(cacheKey, Entry.class);
+        if (entry == null || !entry.version().equals(version)) {
+            entry = serialize(version, ReplicaRoutingDataSource.onPrimary(fetch));
+            cache.put(cacheKey, entry);
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (entry.nextCursor() != null) {
+            response.header(KeysetPagination.NEXT_CURSOR_HEADER, entry.nextCursor());
+        }
+        if (entry.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.gzip());
+        }
+        return response.body(entry.json());
+    }
+    
+    private Entry serialize(String version, ResponseEntity<? extends List<?>> page) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(page.getBody());
+            byte[] gzip = json.length >= gzipMinSize ? gzip(json) : null;
+            return new Entry(version, json, gzip, page.getHeaders().getFirst(KeysetPagination.NEXT_CURSOR_HEADER));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise response", e);
+        }
+    }
+    
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
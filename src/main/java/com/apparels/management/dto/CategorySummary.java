@@ -0,0 +1,15 @@
+package com.apparels.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySummary {
+    
+    private Long id;
+    
+    private String name;
+}
@@ -0,0 +1,19 @@
+package com.apparels.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardStats {
+    
+    private long totalProducts;
+    
+    private long totalCategories;
+    
+    private long totalInventory;
+    
+    private long lowStockItems;
+}
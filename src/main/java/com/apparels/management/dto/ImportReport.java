@@ -0,0 +1,32 @@
+package com.apparels.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Progress of a running catalogue import, or the outcome of a finished one
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+    
+    private String jobId;
+    
+    // RUNNING, COMPLETED or FAILED
+    private String status;
+    
+    private long rowsRead;
+    
+    private long imported;
+    
+    private long rejected;
+    
+    private List<ImportRowError> errors;
+    
+    // True when more rows were rejected than errors are reported
+    private boolean errorsTruncated;
+    
+    private long elapsedMs;
+}
@@ -0,0 +1,18 @@
+package com.apparels.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowError {
+    
+    // 1-based data row, not counting the CSV header
+    private long row;
+    
+    private String sku;
+    
+    private String message;
+}
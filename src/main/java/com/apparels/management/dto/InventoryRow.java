@@ -0,0 +1,38 @@
+package com.apparels.management.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Read-only inventory row for list responses, selected together with its
+// product and category in one JOIN query (see InventoryRepository.ROW_SELECT).
+@Data
+@NoArgsConstructor
+public class InventoryRow {
+    
+    private Long id;
+    
+    private ProductSummary product;
+    
+    private Integer stockLevel;
+    
+    private LocationSummary location;
+    
+    private Integer reorderLevel;
+    
+    private LocalDateTime lastUpdated;
+    
+    public InventoryRow(Long id, Integer stockLevel, Long locationId, String locationName, Integer reorderLevel,
+                        LocalDateTime lastUpdated, Long productId, String productName, String productDescription, BigDecimal price, String sku,
+                        String size, String color, Long categoryId, String categoryName) {
+        this.id = id;
+        this.stockLevel = stockLevel;
+        this.location = new LocationSummary(locationId, locationName);
+        this.reorderLevel = reorderLevel;
+        this.lastUpdated = lastUpdated;
+        this.product = new ProductSummary(productId, productName, productDescription, price, sku,
+                size, color, categoryId, categoryName);
+    }
+}
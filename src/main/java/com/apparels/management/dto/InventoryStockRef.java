@@ -0,0 +1,25 @@
+package com.apparels.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Lightweight projection of an inventory row used by bulk stock operations,
+// loaded without the EAGER product and category associations.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryStockRef {
+    
+    private Long id;
+    
+    private Long productId;
+    
+    private Long locationId;
+    
+    private String sku;
+    
+    private Integer stockLevel;
+    
+    private Integer reorderLevel;
+}
@@ -0,0 +1,55 @@
+package com.apparels.management.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A committed change pushed to /api/inventory/stream subscribers. Only the fields
+// of the change are set; absent fields are left out of the JSON and mean unchanged.
+// RESYNC tells a reconnecting client that events were missed and it must refetch.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InventoryStreamEvent {
+    
+    public enum Type {
+        INVENTORY_CHANGED,
+        INVENTORY_DELETED,
+        PRODUCT_SAVED,
+        PRODUCT_DELETED,
+        LOW_STOCK_ENTERED,
+        LOW_STOCK_LEFT,
+        RESYNC
+    }
+    
+    private long sequence;
+    
+    private Type type;
+    
+    private Long inventoryId;
+    
+    private Long productId;
+    
+    private Integer stockLevel;
+    
+    private Integer reorderLevel;
+    
+    private LocationSummary location;
+    
+    private ProductSummary product;
+    
+    private LocalDateTime occurredAt;
+    
+    public static InventoryStreamEvent of(Type type, Long inventoryId, Long productId) {
+        InventoryStreamEvent event = new InventoryStreamEvent();
+        event.setType(type);
+        event.setInventoryId(inventoryId);
+        event.setProductId(productId);
+        event.setOccurredAt(LocalDateTime.now());
+        return event;
+    }
+}
@@ -0,0 +1,31 @@
+package com.apparels.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Published as an application event when an inventory row enters or leaves
+// low stock (stockLevel <= reorderLevel). LEFT carries the row's new levels,
+// or nulls when the row was deleted.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockAlert {
+    
+    public enum Transition {
+        ENTERED,
+        LEFT
+    }
+    
+    private Long inventoryId;
+    
+    private Transition transition;
+    
+    private Integer stockLevel;
+    
+    private Integer reorderLevel;
+    
+    private LocalDateTime occurredAt;
+}
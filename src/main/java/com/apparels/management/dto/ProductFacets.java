@@ -0,0 +1,41 @@
+package com.apparels.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// Counts for /api/products/facets. Each facet is counted with every filter applied
+// except its own, so the counts say how many products selecting that value would give.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacets {
+    
+    // Products matching all filters
+    private long total;
+    
+    private Map<Long, Long> categories;
+    
+    private Map<String, Long> sizes;
+    
+    private Map<String, Long> colors;
+    
+    private List<PriceBucket> priceBuckets;
+    
+    // Prices from min (inclusive) to max (exclusive); open-ended at the first and last bucket
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBucket {
+        
+        private BigDecimal min;
+        
+        private BigDecimal max;
+        
+        private long count;
+    }
+}
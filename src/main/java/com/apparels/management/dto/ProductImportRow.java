@@ -0,0 +1,38 @@
+package com.apparels.management.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// One catalogue line of a bulk import (a CSV record or an NDJSON object).
+// The category is given either by id or by name; stock fields are optional
+// and create the product's inventory row when stockLevel is present.
+@Data
+@NoArgsConstructor
+public class ProductImportRow {
+    
+    private String name;
+    
+    private String description;
+    
+    private BigDecimal price;
+    
+    private String sku;
+    
+    private String size;
+    
+    private String color;
+    
+    private Long categoryId;
+    
+    private String category;
+    
+    private Integer stockLevel;
+    
+    private Long locationId;
+    
+    private String location;
+    
+    private Integer reorderLevel;
+}
@@ -0,0 +1,19 @@
+package com.apparels.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Stock of one product summed over all locations
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockTotal {
+    
+    private Long productId;
+    
+    private Long totalStock;
+    
+    // Number of locations with an inventory row for the product
+    private Long locations;
+}
@@ -0,0 +1,41 @@
+package com.apparels.management.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Read-only product row for list and search responses, selected together with
+// its category in one JOIN query (see ProductRepository.SUMMARY_SELECT).
+@Data
+@NoArgsConstructor
+public class ProductSummary {
+    
+    private Long id;
+    
+    private String name;
+    
+    private String description;
+    
+    private BigDecimal price;
+    
+    private String sku;
+    
+    private String size;
+    
+    private String color;
+    
+    private CategorySummary category;
+    
+    public ProductSummary(Long id, String name, String description, BigDecimal price, String sku,
+                          String size, String color, Long categoryId, String categoryName) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.sku = sku;
+        this.size = size;
+        this.color = color;
+        this.category = new CategorySummary(categoryId, categoryName);
+    }
+}
@@ -0,0 +1,24 @@
+package com.apparels.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One line of a batch stock adjustment. The inventory row is identified by
+// inventoryId, productId or sku (checked in that order); delta may be negative.
+// productId and sku refer to the row at locationId, or the default location.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequest {
+    
+    private Long inventoryId;
+    
+    private Long productId;
+    
+    private String sku;
+    
+    private Long locationId;
+    
+    private Integer delta;
+}
@@ -0,0 +1,30 @@
+package com.apparels.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResult {
+    
+    private int line;
+    
+    private Long inventoryId;
+    
+    private boolean applied;
+    
+    // Stock level after this line, when applied
+    private Integer stockLevel;
+    
+    private String message;
+    
+    public static StockAdjustmentResult applied(int line, Long inventoryId, int stockLevel) {
+        return new StockAdjustmentResult(line, inventoryId, true, stockLevel, null);
+    }
+    
+    public static StockAdjustmentResult rejected(int line, Long inventoryId, String message) {
+        return new StockAdjustmentResult(line, inventoryId, false, null, message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.apparels.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Moves quantity units of a product from one location to another
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTransferRequest {
+    
+    private Long productId;
+    
+    private Long fromLocationId;
+    
+    private Long toLocationId;
+    
+    private Integer quantity;
+}
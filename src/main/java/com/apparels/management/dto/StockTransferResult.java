@@ -0,0 +1,17 @@
+package com.apparels.management.dto;
+
+import com.apparels.management.entity.Inventory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Both inventory rows of a transfer after it was applied
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTransferResult {
+    
+    private Inventory from;
+    
+    private Inventory to;
+}
@@ -8,7 +8,16 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inventory")
+// One row per product and location. The unique key serves lookups of a product at a
+// location, the product index per-product totals (index-only) and the location index
+// the keyset-paginated listing of a location.
+@Table(name = "inventory",
+       uniqueConstraints = @UniqueConstraint(name = "uk_inventory_location_product",
+                                             columnNames = {"location_id", "product_id"}),
+       indexes = {
+               @Index(name = "idx_inventory_product_stock", columnList = "product_id, stock_level"),
+               @Index(name = "idx_inventory_location", columnList = "location_id, id")
+       })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,15 +27,16 @@ public class Inventory {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @OneToOne(fetch = FetchType.EAGER)
-    @JoinColumn(name = "product_id", nullable = false, unique = true)
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "product_id", nullable = false)
     private Product product;
     
     @Column(name = "stock_level", nullable = false)
     private Integer stockLevel = 0;
     
-    @Column(length = 200)
-    private String location;
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "location_id", nullable = false)
+    private Location location;
     
     @Column(name = "reorder_level")
     private Integer reorderLevel = 10;
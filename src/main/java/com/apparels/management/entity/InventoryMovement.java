@@ -0,0 +1,57 @@
+package com.apparels.management.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Append-only journal of stock changes. Rows are never updated or deleted.
+@Entity
+@Table(name = "inventory_movements",
+       indexes = {
+               @Index(name = "idx_inventory_movements_inventory", columnList = "inventory_id, id"),
+               @Index(name = "idx_inventory_movements_reference", columnList = "reference")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryMovement {
+    
+    public enum Type {
+        RECEIVE,
+        SELL,
+        ADJUST,
+        TRANSFER
+    }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // A plain column rather than an association, so the history outlives deleted inventory rows
+    @Column(name = "inventory_id", nullable = false)
+    private Long inventoryId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, length = 20)
+    private Type type;
+    
+    // Signed change to the stock level
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    @Column(length = 200)
+    private String reference;
+    
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (occurredAt == null) {
+            occurredAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.apparels.management.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Stock level of one inventory row as of a journal position: the level
+// includes every movement of that row up to and including lastMovementId.
+@Entity
+@Table(name = "inventory_snapshots",
+       indexes = @Index(name = "idx_inventory_snapshots_inventory", columnList = "inventory_id, taken_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "inventory_id", nullable = false)
+    private Long inventoryId;
+    
+    @Column(name = "stock_level", nullable = false)
+    private Integer stockLevel;
+    
+    @Column(name = "last_movement_id", nullable = false)
+    private Long lastMovementId;
+    
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+}
@@ -1,16 +1,34 @@
 package com.apparels.management.entity;
 
+import com.apparels.management.config.SecondLevelCacheConfig;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Entity
-@Table(name = "products")
+// One index per search filter, each ending in id so a single-filter search walks it in
+// keyset order; (category_id, price) serves price ranges within a category. Name search
+// uses a pg_trgm index on PostgreSQL (see PostgresSearchIndexes). updated_at finds the
+// products changed since the catalogue snapshot was taken.
+@Table(name = "products",
+       indexes = {
+               @Index(name = "idx_products_category", columnList = "category_id, id"),
+               @Index(name = "idx_products_category_price", columnList = "category_id, price"),
+               @Index(name = "idx_products_price", columnList = "price, id"),
+               @Index(name = "idx_products_size", columnList = "size, id"),
+               @Index(name = "idx_products_color", columnList = "color, id"),
+               @Index(name = "idx_products_updated", columnList = "updated_at")
+       })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.PRODUCTS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -40,9 +58,10 @@ public class Product {
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
     
-    @OneToOne(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    // Inventory rows of the product, one per location
+    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
-    private Inventory inventory;
+    private List<Inventory> inventory;
     
     @Column(name = "created_at")
     private LocalDateTime createdAt;
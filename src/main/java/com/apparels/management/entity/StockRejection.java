@@ -0,0 +1,41 @@
+package com.apparels.management.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Dead letter of the write-behind buffer: an acknowledged stock change that could not
+// be written because its row was deleted, or lowered by another path so the change
+// would take it below zero. Left for an operator to resolve; rows are never updated.
+@Entity
+@Table(name = "stock_rejections",
+       indexes = {
+               @Index(name = "idx_stock_rejections_inventory", columnList = "inventory_id, id"),
+               @Index(name = "idx_stock_rejections_reference", columnList = "reference")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockRejection {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "inventory_id", nullable = false)
+    private Long inventoryId;
+    
+    // Signed net change that was acknowledged but not applied
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    // Write-behind reference of the flush that rejected it
+    @Column(length = 200)
+    private String reference;
+    
+    @Column(name = "rejected_at", nullable = false)
+    private LocalDateTime rejectedAt;
+}
@@ -1,16 +1,25 @@
 package com.apparels.management.repository;
 
 import com.apparels.management.entity.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     
+    // Served from the query and second-level caches until categories change
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Category> findByName(String name);
     
     boolean existsByName(String name);
+    
+    // Keyset paginated listing (rows after the given id, ordered by id)
+    List<Category> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
 }
-
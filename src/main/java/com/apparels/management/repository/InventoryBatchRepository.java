@@ -0,0 +1,60 @@
+package com.apparels.management.repository;
+
+import com.apparels.management.config.MetricsConfig;
+import com.apparels.management.entity.InventoryMovement;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+// Set-based stock writes issued as a single JDBC batch.
+@Repository
+@RequiredArgsConstructor
+@Timed(MetricsConfig.JDBC_TIMER)
+public class InventoryBatchRepository {
+    
+    // Relative update guarded against going negative, so concurrent writers cannot oversell
+    private static final String APPLY_STOCK_DELTA_SQL =
+            "UPDATE inventory SET stock_level = stock_level + ?, last_updated = ? " +
+            "WHERE id = ? AND stock_level + ? >= 0";
+    
+    private static final String INSERT_MOVEMENT_SQL =
+            "INSERT INTO inventory_movements (inventory_id, movement_type, quantity, reference, occurred_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    // Applies the deltas in ascending id order so concurrent batches lock rows
+    // in the same order, journaling each applied delta as an ADJUST movement.
+    // Returns, per entry, whether the row was updated.
+    public boolean[] applyStockDeltas(SortedMap<Long, Integer> deltas, String reference) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+            args.add(new Object[] { entry.getValue(), now, entry.getKey(), entry.getValue() });
+        }
+        
+        int[] counts = jdbcTemplate.batchUpdate(APPLY_STOCK_DELTA_SQL, args);
+        boolean[] updated = new boolean[counts.length];
+        List<Object[]> movements = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            updated[i] = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+            Object[] applied = args.get(i);
+            if (updated[i] && (Integer) applied[0] != 0) {
+                movements.add(new Object[] { applied[2], InventoryMovement.Type.ADJUST.name(), applied[0], reference, now });
+            }
+        }
+        if (!movements.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, movements);
+        }
+        return updated;
+    }
+}
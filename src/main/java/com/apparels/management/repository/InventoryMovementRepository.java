@@ -0,0 +1,31 @@
+package com.apparels.management.repository;
+
+import com.apparels.management.entity.InventoryMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
+    
+    // Keyset paginated history of one inventory row, oldest first
+    List<InventoryMovement> findByInventoryIdAndIdGreaterThanOrderByIdAsc(Long inventoryId, Long afterId, Pageable pageable);
+    
+    boolean existsByReference(String reference);
+    
+    // Net change of one row after a journal position, up to a point in time
+    @Query("SELECT COALESCE(SUM(m.quantity), 0) FROM InventoryMovement m " +
+           "WHERE m.inventoryId = :inventoryId AND m.id > :afterMovementId AND m.occurredAt <= :until")
+    long sumQuantity(@Param("inventoryId") Long inventoryId,
+                     @Param("afterMovementId") Long afterMovementId,
+                     @Param("until") LocalDateTime until);
+    
+    @Query("SELECT COALESCE(SUM(m.quantity), 0) FROM InventoryMovement m " +
+           "WHERE m.inventoryId = :inventoryId AND m.id > :afterMovementId")
+    long sumQuantity(@Param("inventoryId") Long inventoryId, @Param("afterMovementId") Long afterMovementId);
+}
@@ -1,23 +1,123 @@
 package com.apparels.management.repository;
 
+import com.apparels.management.dto.InventoryRow;
+import com.apparels.management.dto.InventoryStockRef;
+import com.apparels.management.dto.ProductStockTotal;
 import com.apparels.management.entity.Inventory;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     
-    Optional<Inventory> findByProductId(Long productId);
+    // Served by the (location_id, product_id) unique index
+    Optional<Inventory> findByProductIdAndLocationId(Long productId, Long locationId);
     
-    List<Inventory> findByStockLevelLessThan(Integer stockLevel);
+    List<Inventory> findByProductIdOrderByLocationId(Long productId);
     
-    @Query("SELECT i FROM Inventory i WHERE i.stockLevel <= i.reorderLevel")
-    List<Inventory> findLowStockItems();
+    // Blocks concurrent stock writes to the row until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.id = :id")
+    Optional<Inventory> findByIdForUpdate(@Param("id") Long id);
     
-    List<Inventory> findByLocation(String location);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.product.id = :productId AND i.location.id = :locationId")
+    Optional<Inventory> findByProductIdAndLocationIdForUpdate(@Param("productId") Long productId,
+                                                              @Param("locationId") Long locationId);
+    
+    String ROW_SELECT = "SELECT new com.apparels.management.dto.InventoryRow(" +
+            "i.id, i.stockLevel, l.id, l.name, i.reorderLevel, i.lastUpdated, " +
+            "p.id, p.name, p.description, p.price, p.sku, p.size, p.color, c.id, c.name) " +
+            "FROM Inventory i JOIN i.product p JOIN p.category c JOIN i.location l ";
+    
+    // Keyset paginated list queries (rows after the given id, ordered by id), each a single JOIN
+    @Query(ROW_SELECT + "WHERE i.id > :afterId ORDER BY i.id")
+    List<InventoryRow> findRows(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(ROW_SELECT + "WHERE i.stockLevel < :stockLevel AND i.id > :afterId ORDER BY i.id")
+    List<InventoryRow> findRowsByStockLevelLessThan(@Param("stockLevel") Integer stockLevel, @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(ROW_SELECT + "WHERE i.stockLevel <= i.reorderLevel AND i.id > :afterId ORDER BY i.id")
+    List<InventoryRow> findLowStockRows(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(ROW_SELECT + "WHERE i.stockLevel <= i.reorderLevel ORDER BY i.reorderLevel - i.stockLevel DESC, i.id")
+    List<InventoryRow> findLowStockRowsBySeverity(Pageable pageable);
+    
+    @Query(ROW_SELECT + "WHERE l.name = :location AND i.id > :afterId ORDER BY i.id")
+    List<InventoryRow> findRowsByLocationName(@Param("location") String location, @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(ROW_SELECT + "WHERE i.location.id = :locationId AND i.id > :afterId ORDER BY i.id")
+    List<InventoryRow> findRowsByLocationId(@Param("locationId") Long locationId, @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(ROW_SELECT + "WHERE i.product.id = :productId ORDER BY l.id")
+    List<InventoryRow> findRowsByProductId(@Param("productId") Long productId);
+    
+    // Grouped on the foreign key only, so the (product_id, stock_level) index covers the query
+    @Query("SELECT new com.apparels.management.dto.ProductStockTotal(i.product.id, SUM(i.stockLevel), COUNT(i)) " +
+           "FROM Inventory i WHERE i.product.id > :afterId GROUP BY i.product.id ORDER BY i.product.id")
+    List<ProductStockTotal> findStockTotals(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT new com.apparels.management.dto.ProductStockTotal(i.product.id, SUM(i.stockLevel), COUNT(i)) " +
+           "FROM Inventory i WHERE i.product.id = :productId GROUP BY i.product.id")
+    Optional<ProductStockTotal> findStockTotal(@Param("productId") Long productId);
+    
+    @Query(ROW_SELECT + "WHERE i.id IN :ids ORDER BY i.id")
+    List<InventoryRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Forward-only cursor over all inventory rows; must be consumed and closed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ProductRepository.EXPORT_FETCH_SIZE))
+    @Query(ROW_SELECT + "ORDER BY i.id")
+    Stream<InventoryRow> streamRows();
+    
+    // Atomic relative stock changes; the decrement only matches while enough
+    // stock is left, so concurrent removals can never oversell
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.stockLevel = i.stockLevel + :quantity, i.lastUpdated = :now " +
+           "WHERE i.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.stockLevel = i.stockLevel - :quantity, i.lastUpdated = :now " +
+           "WHERE i.id = :id AND i.stockLevel >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+    
+    // Stock references for bulk operations, resolved by inventory id, or by product id or SKU at a location
+    @Query("SELECT new com.apparels.management.dto.InventoryStockRef(i.id, p.id, i.location.id, p.sku, i.stockLevel, i.reorderLevel) " +
+           "FROM Inventory i JOIN i.product p WHERE i.id IN :ids")
+    List<InventoryStockRef> findStockRefsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT new com.apparels.management.dto.InventoryStockRef(i.id, p.id, i.location.id, p.sku, i.stockLevel, i.reorderLevel) " +
+           "FROM Inventory i JOIN i.product p WHERE p.id IN :productIds AND i.location.id IN :locationIds")
+    List<InventoryStockRef> findStockRefsByProductIdIn(@Param("productIds") Collection<Long> productIds,
+                                                       @Param("locationIds") Collection<Long> locationIds);
+    
+    @Query("SELECT new com.apparels.management.dto.InventoryStockRef(i.id, p.id, i.location.id, p.sku, i.stockLevel, i.reorderLevel) " +
+           "FROM Inventory i JOIN i.product p WHERE p.sku IN :skus AND i.location.id IN :locationIds")
+    List<InventoryStockRef> findStockRefsBySkuIn(@Param("skus") Collection<String> skus,
+                                                 @Param("locationIds") Collection<Long> locationIds);
+    
+    @Query("SELECT new com.apparels.management.dto.InventoryStockRef(i.id, p.id, i.location.id, p.sku, i.stockLevel, i.reorderLevel) " +
+           "FROM Inventory i JOIN i.product p WHERE i.stockLevel <= i.reorderLevel")
+    List<InventoryStockRef> findLowStockRefs();
+    
+    @Query("SELECT COUNT(i) FROM Inventory i WHERE i.stockLevel <= i.reorderLevel")
+    long countLowStockItems();
+    
+    @Query("SELECT COALESCE(SUM(i.stockLevel), 0) FROM Inventory i")
+    long sumStockLevel();
 }
-
@@ -0,0 +1,41 @@
+package com.apparels.management.repository;
+
+import com.apparels.management.entity.InventorySnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, Long> {
+    
+    Optional<InventorySnapshot> findFirstByInventoryIdOrderByIdDesc(Long inventoryId);
+    
+    Optional<InventorySnapshot> findFirstByInventoryIdAndTakenAtLessThanEqualOrderByIdDesc(Long inventoryId, LocalDateTime at);
+    
+    // Snapshots every inventory row that has no snapshot yet or has movements after
+    // its latest one. Row level and journal position are read by one statement. Stock
+    // writes update the row and append their movement in one transaction, and take the
+    // row lock (a guarded UPDATE or findByIdForUpdate) before the movement gets its id,
+    // so a row's movement ids follow the order its changes commit in. A change made
+    // without the row lock would break this. The table is declared so Hibernate does not
+    // treat the native statement as touching every table and clear the whole second-level cache.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "inventory_snapshots"))
+    @Query(value = "INSERT INTO inventory_snapshots (inventory_id, stock_level, last_movement_id, taken_at) " +
+                   "SELECT i.id, i.stock_level, " +
+                   "COALESCE((SELECT MAX(m.id) FROM inventory_movements m WHERE m.inventory_id = i.id), 0), :takenAt " +
+                   "FROM inventory i " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM inventory_snapshots s WHERE s.inventory_id = i.id) " +
+                   "OR EXISTS (SELECT 1 FROM inventory_movements m WHERE m.inventory_id = i.id AND m.id > " +
+                   "(SELECT MAX(s.last_movement_id) FROM inventory_snapshots s WHERE s.inventory_id = i.id))",
+           nativeQuery = true)
+    int snapshotChangedInventory(@Param("takenAt") LocalDateTime takenAt);
+}
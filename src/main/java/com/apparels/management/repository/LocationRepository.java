@@ -0,0 +1,18 @@
+package com.apparels.management.repository;
+
+import com.apparels.management.entity.Location;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LocationRepository extends JpaRepository<Location, Long> {
+    
+    Optional<Location> findByName(String name);
+    
+    // Keyset paginated listing (rows after the given id, ordered by id)
+    List<Location> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+}
@@ -0,0 +1,86 @@
+package com.apparels.management.repository;
+
+import com.apparels.management.config.MetricsConfig;
+import com.apparels.management.dto.ProductImportRow;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Bulk catalogue writes issued as JDBC batches. Product ids stay IDENTITY-generated,
+// which only rules out batching through Hibernate, not through JDBC.
+@Repository
+@RequiredArgsConstructor
+@Timed(MetricsConfig.JDBC_TIMER)
+public class ProductBatchRepository {
+    
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT INTO products (name, description, price, sku, size, color, category_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    // The product is looked up by SKU inside the statement, so generated ids never need reading back
+    private static final String INSERT_INVENTORY_SQL =
+            "INSERT INTO inventory (product_id, stock_level, location_id, reorder_level, last_updated) " +
+            "SELECT id, CAST(? AS INTEGER), CAST(? AS BIGINT), CAST(? AS INTEGER), CAST(? AS TIMESTAMP) " +
+            "FROM products WHERE sku = ?";
+    
+    // Opening stock is journaled like any other receipt
+    private static final String INSERT_MOVEMENT_SQL =
+            "INSERT INTO inventory_movements (inventory_id, movement_type, quantity, reference, occurred_at) " +
+            "SELECT i.id, 'RECEIVE', i.stock_level, 'import', CAST(? AS TIMESTAMP) " +
+            "FROM inventory i JOIN products p ON p.id = i.product_id WHERE p.sku = ? AND i.stock_level > 0";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public Map<Long, String> findCategoryNames() {
+        Map<Long, String> names = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM categories",
+                rs -> { names.put(rs.getLong(1), rs.getString(2)); });
+        return names;
+    }
+    
+    public Map<String, Long> findLocationIds() {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM locations",
+                rs -> { ids.put(rs.getString(2), rs.getLong(1)); });
+        return ids;
+    }
+    
+    public Set<String> findAllSkus() {
+        Set<String> skus = new HashSet<>();
+        jdbcTemplate.query("SELECT sku FROM products WHERE sku IS NOT NULL",
+                rs -> { skus.add(rs.getString(1)); });
+        return skus;
+    }
+    
+    // Rows must already carry a resolved categoryId, and a locationId if they have stock
+    public void insertProducts(List<ProductImportRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> products = new ArrayList<>(rows.size());
+        List<Object[]> inventory = new ArrayList<>();
+        List<Object[]> movements = new ArrayList<>();
+        for (ProductImportRow row : rows) {
+            products.add(new Object[] { row.getName(), row.getDescription(), row.getPrice(), row.getSku(),
+                    row.getSize(), row.getColor(), row.getCategoryId(), now, now });
+            if (row.getStockLevel() != null) {
+                inventory.add(new Object[] { row.getStockLevel(), row.getLocationId(), row.getReorderLevel(), now, row.getSku() });
+                movements.add(new Object[] { now, row.getSku() });
+            }
+        }
+        
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, products);
+        if (!inventory.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_INVENTORY_SQL, inventory);
+            jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, movements);
+        }
+    }
+}
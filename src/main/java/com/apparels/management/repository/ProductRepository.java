@@ -1,53 +1,84 @@
 package com.apparels.management.repository;
 
+import com.apparels.management.dto.ProductSummary;
 import com.apparels.management.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+// List queries return ProductSummary projections selected with their category
+// in a single JOIN, and are keyset paginated: rows after the given id, ordered
+// by id, with the page size taken from the Pageable. Searches combining optional
+// filters go through searchSummaries with ProductSpecifications.
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductSummarySearch {
+    
+    String SUMMARY_SELECT = "SELECT new com.apparels.management.dto.ProductSummary(" +
+            "p.id, p.name, p.description, p.price, p.sku, p.size, p.color, c.id, c.name) " +
+            "FROM Product p JOIN p.category c ";
+    
+    // Rows fetched per round trip by the export cursors
+    String EXPORT_FETCH_SIZE = "1000";
+    
+    // Full entities in id order, for building in-memory indexes and caches
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+    
+    // Products changed since a point in time, in id order, for reconciling the catalogue snapshot
+    List<Product> findByUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(LocalDateTime since, Long afterId,
+                                                                              Pageable pageable);
+    
+    @Query("SELECT p.id FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIds(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findSummaries(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Forward-only cursor over the whole catalogue; must be consumed and closed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SUMMARY_SELECT + "ORDER BY p.id")
+    Stream<ProductSummary> streamSummaries();
+    
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids ORDER BY p.id")
+    List<ProductSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
     
     // Search by name (case-insensitive)
-    List<Product> findByNameContainingIgnoreCase(String name);
+    @Query(SUMMARY_SELECT + "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')) AND p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findSummariesByNameContaining(@Param("name") String name, @Param("afterId") Long afterId, Pageable pageable);
     
-    // Find by category
-    List<Product> findByCategoryId(Long categoryId);
+    // Find by category; results are kept in the query cache until products or categories change
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SUMMARY_SELECT + "WHERE c.id = :categoryId AND p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findSummariesByCategoryId(@Param("categoryId") Long categoryId, @Param("afterId") Long afterId, Pageable pageable);
     
-    List<Product> findByCategoryName(String categoryName);
+    @Query(SUMMARY_SELECT + "WHERE c.name = :categoryName AND p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findSummariesByCategoryName(@Param("categoryName") String categoryName, @Param("afterId") Long afterId, Pageable pageable);
     
     // Price range filtering
-    List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
+    @Query(SUMMARY_SELECT + "WHERE p.price BETWEEN :minPrice AND :maxPrice AND p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findSummariesByPriceBetween(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice,
+                                                     @Param("afterId") Long afterId, Pageable pageable);
     
     // Find by size
-    List<Product> findBySize(String size);
+    @Query(SUMMARY_SELECT + "WHERE p.size = :size AND p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findSummariesBySize(@Param("size") String size, @Param("afterId") Long afterId, Pageable pageable);
     
     // Find by color
-    List<Product> findByColor(String color);
+    @Query(SUMMARY_SELECT + "WHERE p.color = :color AND p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findSummariesByColor(@Param("color") String color, @Param("afterId") Long afterId, Pageable pageable);
     
-    // Find by SKU
+    // Find by SKU; the query cache maps the SKU to the id, the entity comes from the second-level cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Product> findBySku(String sku);
-    
-    // Combined search query
-    @Query("SELECT p FROM Product p WHERE " +
-           "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-           "(:categoryId IS NULL OR p.category.id = :categoryId) AND " +
-           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
-           "(:size IS NULL OR p.size = :size) AND " +
-           "(:color IS NULL OR p.color = :color)")
-    List<Product> searchProducts(
-            @Param("name") String name,
-            @Param("categoryId") Long categoryId,
-            @Param("minPrice") BigDecimal minPrice,
-            @Param("maxPrice") BigDecimal maxPrice,
-            @Param("size") String size,
-            @Param("color") String color
-    );
 }
-
@@ -0,0 +1,80 @@
+package com.apparels.management.repository;
+
+import com.apparels.management.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Search filters as Specifications. search() combines only the filters that were
+// given, so every search shape gets its own SQL statement (and plan) that can use
+// the matching index on products, instead of one "(:p IS NULL OR ...)" statement.
+public final class ProductSpecifications {
+    
+    private static final char LIKE_ESCAPE = '\\';
+    
+    private ProductSpecifications() {
+    }
+    
+    public static Specification<Product> search(String name, Long categoryId, BigDecimal minPrice,
+                                                 BigDecimal maxPrice, String size, String color) {
+        List<Specification<Product>> filters = new ArrayList<>();
+        if (name != null && !name.isEmpty()) {
+            filters.add(nameContains(name));
+        }
+        if (categoryId != null) {
+            filters.add(inCategory(categoryId));
+        }
+        if (minPrice != null) {
+            filters.add(priceAtLeast(minPrice));
+        }
+        if (maxPrice != null) {
+            filters.add(priceAtMost(maxPrice));
+        }
+        if (size != null) {
+            filters.add(hasSize(size));
+        }
+        if (color != null) {
+            filters.add(hasColor(color));
+        }
+        return Specification.allOf(filters);
+    }
+    
+    // LOWER(name) LIKE '%...%', the expression the pg_trgm index is built on; % and _ match literally
+    public static Specification<Product> nameContains(String name) {
+        String pattern = "%" + escapeLike(name.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, LIKE_ESCAPE);
+    }
+    
+    // Compares the foreign key column, without joining categories
+    public static Specification<Product> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+    
+    public static Specification<Product> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+    
+    public static Specification<Product> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+    
+    public static Specification<Product> hasSize(String size) {
+        return (root, query, cb) -> cb.equal(root.get("size"), size);
+    }
+    
+    public static Specification<Product> hasColor(String color) {
+        return (root, query, cb) -> cb.equal(root.get("color"), color);
+    }
+    
+    // Keyset position: rows after the given id
+    public static Specification<Product> idAfter(Long afterId) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,15 @@
+package com.apparels.management.repository;
+
+import com.apparels.management.dto.ProductSummary;
+import com.apparels.management.entity.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// Dynamic ProductSummary queries built with the Criteria API (see ProductSpecifications)
+public interface ProductSummarySearch {
+    
+    // Rows matching filter in sort order (id breaks ties), at most limit of them
+    List<ProductSummary> searchSummaries(Specification<Product> filter, Sort sort, int limit);
+}
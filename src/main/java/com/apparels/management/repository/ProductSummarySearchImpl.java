@@ -0,0 +1,48 @@
+package com.apparels.management.repository;
+
+import com.apparels.management.dto.ProductSummary;
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+// Same projection and category JOIN as ProductRepository.SUMMARY_SELECT, with only the
+// predicates the filter produces
+@RequiredArgsConstructor
+class ProductSummarySearchImpl implements ProductSummarySearch {
+    
+    private final EntityManager entityManager;
+    
+    @Override
+    public List<ProductSummary> searchSummaries(Specification<Product> filter, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummary> query = cb.createQuery(ProductSummary.class);
+        Root<Product> product = query.from(Product.class);
+        Join<Product, Category> category = product.join("category");
+        query.select(cb.construct(ProductSummary.class,
+                product.get("id"), product.get("name"), product.get("description"), product.get("price"),
+                product.get("sku"), product.get("size"), product.get("color"),
+                category.get("id"), category.get("name")));
+        
+        Predicate where = filter.toPredicate(product, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        Sort order = sort.getOrderFor("id") == null ? sort.and(Sort.by("id")) : sort;
+        query.orderBy(QueryUtils.toOrders(order, product, cb));
+        
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,11 @@
+package com.apparels.management.repository;
+
+import com.apparels.management.entity.StockRejection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockRejectionRepository extends JpaRepository<StockRejection, Long> {
+    
+    boolean existsByReference(String reference);
+}
@@ -0,0 +1,238 @@
+package com.apparels.management.search;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Compact columnar file of the search index documents, read back through a memory mapping.
+// Layout (big-endian): magic, version, taken-at time, source database fingerprint and row count; the
+// size/color dictionary; then one column per field for all rows: ids, prices in cents,
+// category ids, creation times, size and color dictionary codes, and the SKU, name and
+// description columns as byte lengths followed by their UTF-8 bytes.
+public final class CatalogueSnapshot {
+    
+    private static final int MAGIC = 0x41504353;
+    private static final int VERSION = 1;
+    private static final int NONE = -1;
+    // Fixed bytes per row: four long columns, two dictionary codes and three string lengths
+    private static final int ROW_BYTES = 4 * Long.BYTES + 5 * Integer.BYTES;
+    
+    private final long takenAtMillis;
+    private final String source;
+    private final List<ProductSearchIndex.Document> documents;
+    
+    private CatalogueSnapshot(long takenAtMillis, String source, List<ProductSearchIndex.Document> documents) {
+        this.takenAtMillis = takenAtMillis;
+        this.source = source;
+        this.documents = documents;
+    }
+    
+    // Product updatedAt values are local date-times; this is one of them as UTC epoch millis
+    public long takenAtMillis() {
+        return takenAtMillis;
+    }
+    
+    public String source() {
+        return source;
+    }
+    
+    public int size() {
+        return documents.size();
+    }
+    
+    // In id order, as written
+    List<ProductSearchIndex.Document> documents() {
+        return documents;
+    }
+    
+    // Written to a temporary file that replaces the previous snapshot once complete
+    static void write(Path file, String source, long takenAtMillis,
+                      List<ProductSearchIndex.Document> documents) throws IOException {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (ProductSearchIndex.Document document : documents) {
+            code(dictionary, document.size);
+            code(dictionary, document.color);
+        }
+        
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(takenAtMillis);
+            writeString(out, source);
+            out.writeInt(documents.size());
+            out.writeInt(dictionary.size());
+            for (String value : dictionary.keySet()) {
+                writeString(out, value);
+            }
+            for (ProductSearchIndex.Document document : documents) {
+                out.writeLong(document.id);
+            }
+            for (ProductSearchIndex.Document document : documents) {
+                out.writeLong(document.priceCents);
+            }
+            for (ProductSearchIndex.Document document : documents) {
+                out.writeLong(document.categoryId != null ? document.categoryId : NONE);
+            }
+            for (ProductSearchIndex.Document document : documents) {
+                out.writeLong(document.createdAtMillis);
+            }
+            for (ProductSearchIndex.Document document : documents) {
+                out.writeInt(document.size != null ? dictionary.get(document.size) : NONE);
+            }
+            for (ProductSearchIndex.Document document : documents) {
+                out.writeInt(document.color != null ? dictionary.get(document.color) : NONE);
+            }
+            writeColumn(out, documents, document -> document.sku);
+            writeColumn(out, documents, document -> document.name);
+            writeColumn(out, documents, document -> document.description);
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    static CatalogueSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot larger than 2 GB");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a catalogue snapshot of version " + VERSION);
+            }
+            long takenAtMillis = buffer.getLong();
+            String source = readString(buffer);
+            // Counts are checked against the bytes left, so a corrupt header cannot size an array
+            int count = buffer.getInt();
+            if (count < 0 || (long) ROW_BYTES * count > buffer.remaining()) {
+                throw new IOException("Row count " + count + " does not fit the catalogue snapshot");
+            }
+            int dictionarySize = buffer.getInt();
+            if (dictionarySize < 0 || dictionarySize > 2L * count || dictionarySize > buffer.remaining() / Integer.BYTES) {
+                throw new IOException("Dictionary size " + dictionarySize + " does not fit the catalogue snapshot");
+            }
+            String[] dictionary = new String[dictionarySize];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = readString(buffer);
+            }
+            
+            int ids = buffer.position();
+            int prices = ids + Long.BYTES * count;
+            int categories = prices + Long.BYTES * count;
+            int created = categories + Long.BYTES * count;
+            int sizes = created + Long.BYTES * count;
+            int colors = sizes + Integer.BYTES * count;
+            StringColumn skus = new StringColumn(buffer, colors + Integer.BYTES * count, count);
+            StringColumn names = new StringColumn(buffer, skus.end, count);
+            StringColumn descriptions = new StringColumn(buffer, names.end, count);
+            
+            List<ProductSearchIndex.Document> documents = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long categoryId = buffer.getLong(categories + Long.BYTES * i);
+                int size = buffer.getInt(sizes + Integer.BYTES * i);
+                int color = buffer.getInt(colors + Integer.BYTES * i);
+                documents.add(new ProductSearchIndex.Document(
+                        buffer.getLong(ids + Long.BYTES * i),
+                        names.next(),
+                        skus.next(),
+                        descriptions.next(),
+                        buffer.getLong(prices + Long.BYTES * i),
+                        categoryId != NONE ? categoryId : null,
+                        size != NONE ? dictionary[size] : null,
+                        color != NONE ? dictionary[color] : null,
+                        buffer.getLong(created + Long.BYTES * i)));
+            }
+            return new CatalogueSnapshot(takenAtMillis, source, documents);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated catalogue snapshot", e);
+        }
+    }
+    
+    private static void code(Map<String, Integer> dictionary, String value) {
+        if (value != null) {
+            dictionary.putIfAbsent(value, dictionary.size());
+        }
+    }
+    
+    private static void writeColumn(DataOutputStream out, List<ProductSearchIndex.Document> documents,
+                                    Function<ProductSearchIndex.Document, String> field) throws IOException {
+        byte[][] values = new byte[documents.size()][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = field.apply(documents.get(i)).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(values[i].length);
+        }
+        for (byte[] value : values) {
+            out.write(value);
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(MappedByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("String length " + length + " does not fit the catalogue snapshot");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    // Decodes one string column row by row: the lengths, then the bytes they cover
+    private static final class StringColumn {
+        
+        private final MappedByteBuffer buffer;
+        private final int lengths;
+        private final int end;
+        private int row;
+        private int offset;
+        private byte[] scratch = new byte[256];
+        
+        StringColumn(MappedByteBuffer buffer, int start, int count) throws IOException {
+            this.buffer = buffer;
+            this.lengths = start;
+            this.offset = start + Integer.BYTES * count;
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getInt(start + Integer.BYTES * i);
+                if (length < 0) {
+                    throw new IOException("Negative string length in the catalogue snapshot");
+                }
+                total += length;
+            }
+            if (offset + total > buffer.limit()) {
+                throw new IOException("String column past the end of the catalogue snapshot");
+            }
+            this.end = (int) (offset + total);
+        }
+        
+        String next() {
+            int length = buffer.getInt(lengths + Integer.BYTES * row++);
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(offset, scratch, 0, length);
+            offset += length;
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
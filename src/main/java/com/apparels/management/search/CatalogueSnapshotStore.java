@@ -0,0 +1,92 @@
+package com.apparels.management.search;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+// Keeps a CatalogueSnapshot of the search index on disk (catalogue.snapshot.enabled), written
+// periodically and at shutdown, so a restart rebuilds the index from the file and the
+// products changed since instead of reading the whole products table.
+@Slf4j
+@Component
+public class CatalogueSnapshotStore {
+    
+    private final ProductSearchIndex productSearchIndex;
+    private final boolean enabled;
+    private final Path file;
+    private final String source;
+    
+    public CatalogueSnapshotStore(ProductSearchIndex productSearchIndex,
+                                  @Value("${catalogue.snapshot.enabled:false}") boolean enabled,
+                                  @Value("${catalogue.snapshot.path:./data/catalogue.snapshot}") Path file,
+                                  @Value("${spring.datasource.url:}") String databaseUrl) {
+        this.productSearchIndex = productSearchIndex;
+        this.enabled = enabled;
+        this.file = file;
+        this.source = fingerprint(databaseUrl);
+    }
+    
+    // The time is taken before the index is copied, so any write the copy misses has a later updatedAt
+    @Scheduled(initialDelayString = "${catalogue.snapshot.interval-ms:600000}",
+               fixedDelayString = "${catalogue.snapshot.interval-ms:600000}")
+    @PreDestroy
+    public void write() {
+        if (!enabled || !productSearchIndex.isReady()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long takenAtMillis = LocalDateTime.now().toInstant(ZoneOffset.UTC).toEpochMilli();
+        List<ProductSearchIndex.Document> documents = productSearchIndex.documents();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            CatalogueSnapshot.write(file, source, takenAtMillis, documents);
+            log.info("Catalogue snapshot of {} products written in {} ms", documents.size(),
+                    System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            log.warn("Could not write the catalogue snapshot {}: {}", file, e.getMessage());
+        }
+    }
+    
+    // The last snapshot taken of this database, if there is a readable one
+    public Optional<CatalogueSnapshot> read() {
+        if (!enabled || !Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            CatalogueSnapshot snapshot = CatalogueSnapshot.read(file);
+            if (!snapshot.source().equals(source)) {
+                log.info("Ignoring the catalogue snapshot {}, it was taken of another database", file);
+                return Optional.empty();
+            }
+            return Optional.of(snapshot);
+        } catch (IOException | RuntimeException e) {
+            // The index is then loaded from the products table instead
+            log.warn("Ignoring the unreadable catalogue snapshot {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    // Identifies the database in the file without storing its URL, which may carry credentials
+    private static String fingerprint(String databaseUrl) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(databaseUrl.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,799 @@
+package com.apparels.management.search;
+
+import com.apparels.management.dto.ProductFacets;
+import com.apparels.management.entity.Product;
+import com.apparels.management.service.TransactionCallbacks;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory search index over the product catalogue.
+//
+// Every product occupies a slot; filters are evaluated as bitmaps of slots:
+// a trigram inverted index over name, SKU and description (candidates are then
+// verified with a real substring match), bitmap facets for category, size and
+// color, and a price-sorted slot array for range queries. Prices are held as
+// scaled longs (cents) so range checks never touch BigDecimal. Slot orders by
+// price, name and creation time serve sorted top-K listings.
+@Component
+public class ProductSearchIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+    private static final BigDecimal MIN_CENTS = BigDecimal.valueOf(Long.MIN_VALUE, 2);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private Document[] documents = new Document[INITIAL_CAPACITY];
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+    private int slotCount;
+
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> trigrams = new HashMap<>();
+    private final Map<Long, RoaringBitmap> categories = new HashMap<>();
+    private final Map<String, RoaringBitmap> sizes = new HashMap<>();
+    private final Map<String, RoaringBitmap> colors = new HashMap<>();
+
+    // Slots ordered by price, name and creation time (ties by id), rebuilt lazily after
+    // writes; sortedPrices holds the prices along the price order for range lookups
+    private final SlotOrder priceOrder = new SlotOrder(
+            (a, b) -> Long.compare(documents[a].priceCents, documents[b].priceCents));
+    private final SlotOrder nameOrder = new SlotOrder(
+            (a, b) -> documents[a].name.compareTo(documents[b].name));
+    private final SlotOrder createdOrder = new SlotOrder(
+            (a, b) -> Long.compare(documents[a].createdAtMillis, documents[b].createdAtMillis));
+    private long[] sortedPrices = new long[0];
+
+    // Writes committed while a rebuild is loading, replayed on top of it
+    private List<Runnable> pendingDuringRebuild;
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Copy of the indexed documents in id order, e.g. for the catalogue snapshot
+    public List<Document> documents() {
+        List<Document> all;
+        lock.readLock().lock();
+        try {
+            all = new ArrayList<>(slotsById.size());
+            IntIterator it = live.getIntIterator();
+            while (it.hasNext()) {
+                all.add(documents[it.next()]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        all.sort(Comparator.comparingLong(document -> document.id));
+        return all;
+    }
+
+    // Starts recording incremental writes so they survive the following rebuild
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Replaces the whole index content, e.g. at startup
+    public void rebuild(Collection<Document> all) {
+        lock.writeLock().lock();
+        try {
+            slotsById.clear();
+            documents = new Document[Math.max(INITIAL_CAPACITY, all.size())];
+            freeSlotCount = 0;
+            slotCount = 0;
+            live.clear();
+            trigrams.clear();
+            categories.clear();
+            sizes.clear();
+            colors.clear();
+            for (Document document : all) {
+                put(document);
+            }
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.forEach(Runnable::run);
+                pendingDuringRebuild = null;
+            }
+            live.runOptimize();
+            markOrdersDirty();
+            rebuildPriceOrder();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Index updates are applied once the surrounding transaction commits
+    public void onProductSaved(Product product) {
+        Document document = Document.of(product);
+        TransactionCallbacks.afterCommit(() -> index(document));
+    }
+
+    public void onProductDeleted(Long id) {
+        TransactionCallbacks.afterCommit(() -> remove(id));
+    }
+
+    public void index(Document document) {
+        lock.writeLock().lock();
+        try {
+            put(document);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(() -> put(document));
+            }
+            markOrdersDirty();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(() -> removeSlot(id));
+            }
+            removeSlot(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeSlot(Long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot != null) {
+            unindex(slot);
+            releaseSlot(slot);
+            markOrdersDirty();
+        }
+    }
+
+    // Returns the ids of matching products in ascending id order, starting
+    // after afterId and limited to limit entries. Null filters are ignored;
+    // name matches the product name only, text matches name, SKU or description.
+    public List<Long> search(String name, String text, Long categoryId, BigDecimal minPrice,
+                             BigDecimal maxPrice, String size, String color,
+                             Long afterId, int limit) {
+        if (minPrice != null || maxPrice != null) {
+            ensureOrdered(priceOrder);
+        }
+
+        String nameQuery = normalize(name);
+        String textQuery = normalize(text);
+        long minCents = minPrice != null ? toCents(minPrice, RoundingMode.CEILING) : Long.MIN_VALUE;
+        long maxCents = maxPrice != null ? toCents(maxPrice, RoundingMode.FLOOR) : Long.MAX_VALUE;
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = candidates(categoryId, size, color, nameQuery, textQuery);
+            if (candidates == null) {
+                return List.of();
+            }
+            // A concurrent write may have invalidated the price order again;
+            // in that case prices are checked per candidate instead
+            boolean priceFilter = minPrice != null || maxPrice != null;
+            if (priceFilter && !priceOrder.dirty) {
+                candidates.and(priceRange(minCents, maxCents));
+                priceFilter = false;
+            }
+
+            return collect(candidates, nameQuery, textQuery, priceFilter, minCents, maxCents,
+                    afterId != null ? afterId : 0L, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Returns the ids of the first limit matching products in the given order, e.g. the
+    // cheapest products of a category or the newest arrivals. Filters as in search.
+    // Walks the slot order of the sort field, skipping non-matching slots (a price sort
+    // with a price filter walks only the price range), unless the filters leave so few
+    // candidates that sorting just those is cheaper.
+    public List<Long> top(String name, String text, Long categoryId, BigDecimal minPrice,
+                          BigDecimal maxPrice, String size, String color,
+                          ProductSort sort, int limit) {
+        SlotOrder order = order(sort.field());
+        ensureOrdered(order);
+        boolean priceFilter = minPrice != null || maxPrice != null;
+        if (priceFilter) {
+            ensureOrdered(priceOrder);
+        }
+
+        String nameQuery = normalize(name);
+        String textQuery = normalize(text);
+        long minCents = minPrice != null ? toCents(minPrice, RoundingMode.CEILING) : Long.MIN_VALUE;
+        long maxCents = maxPrice != null ? toCents(maxPrice, RoundingMode.FLOOR) : Long.MAX_VALUE;
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = candidates(categoryId, size, color, nameQuery, textQuery);
+            if (candidates == null) {
+                return List.of();
+            }
+            // As in search, prices are checked per candidate if a concurrent write
+            // invalidated the price order
+            boolean checkPrice = priceFilter;
+            if (priceFilter && !priceOrder.dirty) {
+                candidates.and(priceRange(minCents, maxCents));
+                checkPrice = false;
+            }
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+
+            int[] slots = order.slots;
+            if (order.dirty || !walkIsCheaper(candidates.getLongCardinality(), limit, slots.length)) {
+                return sortCandidates(candidates, order, sort.descending(), nameQuery, textQuery,
+                        checkPrice, minCents, maxCents, limit);
+            }
+            int from = 0;
+            int to = slots.length;
+            if (order == priceOrder && priceFilter) {
+                from = lowerBound(sortedPrices, minCents);
+                to = maxCents == Long.MAX_VALUE ? sortedPrices.length : lowerBound(sortedPrices, maxCents + 1);
+            }
+            List<Long> ids = new ArrayList<>(limit);
+            for (int i = 0; i < to - from && ids.size() < limit; i++) {
+                int slot = slots[sort.descending() ? to - 1 - i : from + i];
+                if (candidates.contains(slot)
+                        && matches(documents[slot], nameQuery, textQuery, checkPrice, minCents, maxCents)) {
+                    ids.add(documents[slot].id);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Walking visits about limit * live / candidates slots before it has limit matches;
+    // sorting the candidates takes about candidates * log2(candidates) comparisons
+    private static boolean walkIsCheaper(long candidates, int limit, int live) {
+        long walk = (long) limit * live / candidates;
+        long sort = candidates * (64 - Long.numberOfLeadingZeros(candidates));
+        return walk <= sort;
+    }
+
+    private List<Long> sortCandidates(RoaringBitmap candidates, SlotOrder order, boolean descending,
+                                      String nameQuery, String textQuery, boolean checkPrice,
+                                      long minCents, long maxCents, int limit) {
+        int[] slots = new int[candidates.getCardinality()];
+        int count = 0;
+        IntIterator it = candidates.getIntIterator();
+        while (it.hasNext()) {
+            int slot = it.next();
+            if (matches(documents[slot], nameQuery, textQuery, checkPrice, minCents, maxCents)) {
+                slots[count++] = slot;
+            }
+        }
+        sortSlots(slots, order, 0, count - 1);
+        List<Long> ids = new ArrayList<>(Math.min(limit, count));
+        for (int i = 0; i < count && ids.size() < limit; i++) {
+            ids.add(documents[slots[descending ? count - 1 - i : i]].id);
+        }
+        return ids;
+    }
+
+    private static boolean matches(Document document, String nameQuery, String textQuery,
+                                   boolean checkPrice, long minCents, long maxCents) {
+        return (!checkPrice || (document.priceCents >= minCents && document.priceCents <= maxCents))
+                && (nameQuery == null || document.name.contains(nameQuery))
+                && (textQuery == null || document.matchesText(textQuery));
+    }
+
+    // Live slots passing the category, size and color filters and containing the
+    // trigrams of the name and text queries (still to be verified), or null if none do
+    private RoaringBitmap candidates(Long categoryId, String size, String color,
+                                     String nameQuery, String textQuery) {
+        RoaringBitmap candidates = live.clone();
+        if (categoryId != null && !intersect(candidates, categories.get(categoryId))) {
+            return null;
+        }
+        if (size != null && !intersect(candidates, sizes.get(size))) {
+            return null;
+        }
+        if (color != null && !intersect(candidates, colors.get(color))) {
+            return null;
+        }
+        if (nameQuery != null && !intersectTrigrams(candidates, nameQuery)) {
+            return null;
+        }
+        if (textQuery != null && !intersectTrigrams(candidates, textQuery)) {
+            return null;
+        }
+        return candidates;
+    }
+
+    // Keeps the smallest ids above afterId in a bounded max-heap
+    private List<Long> collect(RoaringBitmap candidates, String nameQuery, String textQuery,
+                               boolean priceFilter, long minCents, long maxCents,
+                               long afterId, int limit) {
+        PriorityQueue<Long> smallest = new PriorityQueue<>(limit + 1, (a, b) -> Long.compare(b, a));
+        IntIterator it = candidates.getIntIterator();
+        while (it.hasNext()) {
+            Document document = documents[it.next()];
+            if (document.id <= afterId) {
+                continue;
+            }
+            if (smallest.size() == limit && document.id >= smallest.peek()) {
+                continue;
+            }
+            if (priceFilter && (document.priceCents < minCents || document.priceCents > maxCents)) {
+                continue;
+            }
+            if (nameQuery != null && !document.name.contains(nameQuery)) {
+                continue;
+            }
+            if (textQuery != null && !document.matchesText(textQuery)) {
+                continue;
+            }
+            smallest.offer(document.id);
+            if (smallest.size() > limit) {
+                smallest.poll();
+            }
+        }
+        Long[] ids = smallest.toArray(new Long[0]);
+        Arrays.sort(ids);
+        return Arrays.asList(ids);
+    }
+
+    // Counts matching products per category, size, color and price bucket from the
+    // bitmaps, without loading any product. Each facet is counted with all filters
+    // except its own. priceBounds are the ascending bucket boundaries.
+    public ProductFacets facets(String name, String text, Long categoryId, BigDecimal minPrice,
+                                BigDecimal maxPrice, String size, String color, BigDecimal[] priceBounds) {
+        String nameQuery = normalize(name);
+        String textQuery = normalize(text);
+        long[] boundCents = new long[priceBounds.length];
+        for (int i = 0; i < priceBounds.length; i++) {
+            boundCents[i] = toCents(priceBounds[i], RoundingMode.CEILING);
+        }
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap base = live.clone();
+            if (nameQuery != null || textQuery != null) {
+                base = matchingText(base, nameQuery, textQuery);
+            }
+            RoaringBitmap byCategory = categoryId != null ? postings(categories, categoryId) : null;
+            RoaringBitmap bySize = size != null ? postings(sizes, size) : null;
+            RoaringBitmap byColor = color != null ? postings(colors, color) : null;
+            RoaringBitmap byPrice = minPrice != null || maxPrice != null
+                    ? matchingPrice(base,
+                            minPrice != null ? toCents(minPrice, RoundingMode.CEILING) : Long.MIN_VALUE,
+                            maxPrice != null ? toCents(maxPrice, RoundingMode.FLOOR) : Long.MAX_VALUE)
+                    : null;
+
+            return new ProductFacets(
+                    and(base, byCategory, bySize, byColor, byPrice).getLongCardinality(),
+                    count(categories, and(base, bySize, byColor, byPrice)),
+                    count(sizes, and(base, byCategory, byColor, byPrice)),
+                    count(colors, and(base, byCategory, bySize, byPrice)),
+                    priceBuckets(and(base, byCategory, bySize, byColor), boundCents, priceBounds));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Narrows trigram candidates to the slots whose text really contains the queries
+    private RoaringBitmap matchingText(RoaringBitmap candidates, String nameQuery, String textQuery) {
+        RoaringBitmap matching = new RoaringBitmap();
+        if ((nameQuery != null && !intersectTrigrams(candidates, nameQuery))
+                || (textQuery != null && !intersectTrigrams(candidates, textQuery))) {
+            return matching;
+        }
+        IntIterator it = candidates.getIntIterator();
+        while (it.hasNext()) {
+            int slot = it.next();
+            Document document = documents[slot];
+            if ((nameQuery == null || document.name.contains(nameQuery))
+                    && (textQuery == null || document.matchesText(textQuery))) {
+                matching.add(slot);
+            }
+        }
+        return matching;
+    }
+
+    // Checks prices per slot, so it does not depend on the lazily rebuilt price order
+    private RoaringBitmap matchingPrice(RoaringBitmap candidates, long minCents, long maxCents) {
+        RoaringBitmap matching = new RoaringBitmap();
+        IntIterator it = candidates.getIntIterator();
+        while (it.hasNext()) {
+            int slot = it.next();
+            long price = documents[slot].priceCents;
+            if (price >= minCents && price <= maxCents) {
+                matching.add(slot);
+            }
+        }
+        return matching;
+    }
+
+    private static <K> RoaringBitmap postings(Map<K, RoaringBitmap> postings, K key) {
+        RoaringBitmap bitmap = postings.get(key);
+        return bitmap != null ? bitmap : new RoaringBitmap();
+    }
+
+    // Intersection of base with the filters that are set
+    private static RoaringBitmap and(RoaringBitmap base, RoaringBitmap... filters) {
+        RoaringBitmap result = base.clone();
+        for (RoaringBitmap filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static <K> Map<K, Long> count(Map<K, RoaringBitmap> postings, RoaringBitmap within) {
+        Map<K, Long> counts = new TreeMap<>();
+        if (within.isEmpty()) {
+            return counts;
+        }
+        for (Map.Entry<K, RoaringBitmap> entry : postings.entrySet()) {
+            long count = RoaringBitmap.andCardinality(entry.getValue(), within);
+            if (count > 0) {
+                counts.put(entry.getKey(), count);
+            }
+        }
+        return counts;
+    }
+
+    private List<ProductFacets.PriceBucket> priceBuckets(RoaringBitmap within, long[] boundCents, BigDecimal[] bounds) {
+        long[] counts = new long[boundCents.length + 1];
+        IntIterator it = within.getIntIterator();
+        while (it.hasNext()) {
+            long price = documents[it.next()].priceCents;
+            // Index of the first bound above the price
+            counts[lowerBound(boundCents, price + 1)]++;
+        }
+        List<ProductFacets.PriceBucket> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(new ProductFacets.PriceBucket(
+                    i > 0 ? bounds[i - 1] : null,
+                    i < bounds.length ? bounds[i] : null,
+                    counts[i]));
+        }
+        return buckets;
+    }
+
+    private static boolean intersect(RoaringBitmap candidates, RoaringBitmap filter) {
+        if (filter == null) {
+            return false;
+        }
+        candidates.and(filter);
+        return !candidates.isEmpty();
+    }
+
+    // Queries shorter than a trigram cannot use the postings and are verified by scan
+    private boolean intersectTrigrams(RoaringBitmap candidates, String query) {
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            if (!intersect(candidates, trigrams.get(trigram(query, i)))) {
+                return false;
+            }
+        }
+        return !candidates.isEmpty();
+    }
+
+    private RoaringBitmap priceRange(long minCents, long maxCents) {
+        int from = lowerBound(sortedPrices, minCents);
+        int to = maxCents == Long.MAX_VALUE ? sortedPrices.length : lowerBound(sortedPrices, maxCents + 1);
+        RoaringBitmap range = new RoaringBitmap();
+        if (from < to) {
+            int[] slots = Arrays.copyOfRange(priceOrder.slots, from, to);
+            Arrays.sort(slots);
+            range.addN(slots, 0, slots.length);
+        }
+        return range;
+    }
+
+    private static int lowerBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private SlotOrder order(ProductSort.Field field) {
+        return switch (field) {
+            case PRICE -> priceOrder;
+            case NAME -> nameOrder;
+            case CREATED_AT -> createdOrder;
+        };
+    }
+
+    private void markOrdersDirty() {
+        priceOrder.dirty = true;
+        nameOrder.dirty = true;
+        createdOrder.dirty = true;
+    }
+
+    // Rebuilds the order if writes have invalidated it
+    private void ensureOrdered(SlotOrder order) {
+        if (!order.dirty) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!order.dirty) {
+                return;
+            }
+            if (order == priceOrder) {
+                rebuildPriceOrder();
+            } else {
+                order.rebuild();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuildPriceOrder() {
+        priceOrder.rebuild();
+        int[] slots = priceOrder.slots;
+        long[] prices = new long[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            prices[i] = documents[slots[i]].priceCents;
+        }
+        sortedPrices = prices;
+    }
+
+    // Quicksort of slots in the given order, avoiding boxed comparators
+    private static void sortSlots(int[] slots, SlotOrder order, int low, int high) {
+        while (low < high) {
+            int pivot = slots[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (order.compare(slots[i], pivot) < 0) {
+                    i++;
+                }
+                while (order.compare(slots[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    int slot = slots[i];
+                    slots[i] = slots[j];
+                    slots[j] = slot;
+                    i++;
+                    j--;
+                }
+            }
+            // Recurse into the smaller half to bound the stack depth
+            if (j - low < high - i) {
+                sortSlots(slots, order, low, j);
+                low = i;
+            } else {
+                sortSlots(slots, order, i, high);
+                high = j;
+            }
+        }
+    }
+
+    private void put(Document document) {
+        Integer existing = slotsById.get(document.id);
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            unindex(slot);
+        } else {
+            slot = allocateSlot();
+            slotsById.put(document.id, slot);
+        }
+        documents[slot] = document;
+        live.add(slot);
+        for (long gram : document.trigrams()) {
+            trigrams.computeIfAbsent(gram, k -> new RoaringBitmap()).add(slot);
+        }
+        if (document.categoryId != null) {
+            categories.computeIfAbsent(document.categoryId, k -> new RoaringBitmap()).add(slot);
+        }
+        if (document.size != null) {
+            sizes.computeIfAbsent(document.size, k -> new RoaringBitmap()).add(slot);
+        }
+        if (document.color != null) {
+            colors.computeIfAbsent(document.color, k -> new RoaringBitmap()).add(slot);
+        }
+    }
+
+    private void unindex(int slot) {
+        Document document = documents[slot];
+        live.remove(slot);
+        for (long gram : document.trigrams()) {
+            removeFrom(trigrams, gram, slot);
+        }
+        if (document.categoryId != null) {
+            removeFrom(categories, document.categoryId, slot);
+        }
+        if (document.size != null) {
+            removeFrom(sizes, document.size, slot);
+        }
+        if (document.color != null) {
+            removeFrom(colors, document.color, slot);
+        }
+        documents[slot] = null;
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> postings, K key, int slot) {
+        RoaringBitmap bitmap = postings.get(key);
+        if (bitmap != null) {
+            bitmap.remove(slot);
+            if (bitmap.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == documents.length) {
+            documents = Arrays.copyOf(documents, documents.length * 2);
+        }
+        return slotCount++;
+    }
+
+    private void releaseSlot(int slot) {
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    // Clamped to the long range, so a request filter beyond it matches everything or
+    // nothing, as it would with exact arithmetic, instead of overflowing
+    static long toCents(BigDecimal price, RoundingMode rounding) {
+        if (price.compareTo(MAX_CENTS) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        if (price.compareTo(MIN_CENTS) <= 0) {
+            return Long.MIN_VALUE;
+        }
+        return price.setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    static long trigram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32)
+                | ((long) text.charAt(offset + 1) << 16)
+                | text.charAt(offset + 2);
+    }
+
+    @FunctionalInterface
+    private interface SlotComparator {
+        int compare(int a, int b);
+    }
+
+    // Live slots in ascending order of one field, ties broken by id
+    private final class SlotOrder {
+
+        private final SlotComparator byField;
+        private int[] slots = new int[0];
+        private volatile boolean dirty = true;
+
+        SlotOrder(SlotComparator byField) {
+            this.byField = byField;
+        }
+
+        int compare(int a, int b) {
+            int result = byField.compare(a, b);
+            return result != 0 ? result : Long.compare(documents[a].id, documents[b].id);
+        }
+
+        void rebuild() {
+            int[] ordered = live.toArray();
+            sortSlots(ordered, this, 0, ordered.length - 1);
+            slots = ordered;
+            dirty = false;
+        }
+    }
+
+    // Immutable snapshot of the searchable fields of a product
+    public static final class Document {
+
+        final long id;
+        final String name;
+        final String sku;
+        final String description;
+        final long priceCents;
+        final Long categoryId;
+        final String size;
+        final String color;
+        final long createdAtMillis;
+
+        Document(long id, String name, String sku, String description, long priceCents,
+                 Long categoryId, String size, String color, long createdAtMillis) {
+            this.id = id;
+            this.name = name != null ? name.toLowerCase(Locale.ROOT) : "";
+            this.sku = sku != null ? sku.toLowerCase(Locale.ROOT) : "";
+            this.description = description != null ? description.toLowerCase(Locale.ROOT) : "";
+            this.priceCents = priceCents;
+            this.categoryId = categoryId;
+            this.size = size;
+            this.color = color;
+            this.createdAtMillis = createdAtMillis;
+        }
+
+        public static Document of(Product product) {
+            return new Document(
+                    product.getId(),
+                    product.getName(),
+                    product.getSku(),
+                    product.getDescription(),
+                    product.getPrice() != null ? toCents(product.getPrice(), RoundingMode.HALF_UP) : 0L,
+                    product.getCategory() != null ? product.getCategory().getId() : null,
+                    product.getSize(),
+                    product.getColor(),
+                    product.getCreatedAt() != null ? product.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli() : 0L
+            );
+        }
+
+        boolean matchesText(String query) {
+            return name.contains(query) || sku.contains(query) || description.contains(query);
+        }
+
+        long[] trigrams() {
+            long[] grams = new long[gramCount(name) + gramCount(sku) + gramCount(description)];
+            int count = addTrigrams(grams, 0, name);
+            count = addTrigrams(grams, count, sku);
+            addTrigrams(grams, count, description);
+            return Arrays.stream(grams).sorted().distinct().toArray();
+        }
+
+        private static int gramCount(String text) {
+            return Math.max(0, text.length() - 2);
+        }
+
+        private static int addTrigrams(long[] grams, int offset, String text) {
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                grams[offset++] = trigram(text, i);
+            }
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.apparels.management.search;
+
+import com.apparels.management.config.ReplicaRoutingDataSource;
+import com.apparels.management.entity.Product;
+import com.apparels.management.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Builds the product search index once the application has started, from the
+// catalogue snapshot when there is one, otherwise from the products table.
+// Until it is ready, searches fall back to the database query.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "search.index.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductSearchIndexLoader {
+    
+    private static final int BATCH_SIZE = 1000;
+    private static final int ID_BATCH_SIZE = 50_000;
+    
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final CatalogueSnapshotStore catalogueSnapshotStore;
+    
+    // Products updated this long before the snapshot was taken are reloaded too, covering
+    // commits that lag behind their updatedAt and clock differences between nodes
+    @Value("${catalogue.snapshot.reconcile-margin-ms:60000}")
+    private long reconcileMarginMillis;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.currentTimeMillis();
+        productSearchIndex.beginRebuild();
+        Optional<CatalogueSnapshot> snapshot = catalogueSnapshotStore.read();
+        List<ProductSearchIndex.Document> documents = snapshot.isPresent()
+                ? reconcile(snapshot.get())
+                : loadAll();
+        
+        productSearchIndex.rebuild(documents);
+        log.info("Product search index built with {} products in {} ms{}",
+                documents.size(), System.currentTimeMillis() - start,
+                snapshot.isPresent() ? " from the catalogue snapshot" : "");
+    }
+    
+    private List<ProductSearchIndex.Document> loadAll() {
+        List<ProductSearchIndex.Document> documents = new ArrayList<>();
+        Long afterId = 0L;
+        List<Product> batch;
+        do {
+            // From the primary, so no write made before the load is missing from the index
+            Long after = afterId;
+            batch = ReplicaRoutingDataSource.onPrimary(
+                    () -> productRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.ofSize(BATCH_SIZE)));
+            for (Product product : batch) {
+                documents.add(ProductSearchIndex.Document.of(product));
+                afterId = product.getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        return documents;
+    }
+    
+    // The snapshot rows whose products still exist, with the products changed since the
+    // snapshot (new ones included) read from the table. Only ids and changed rows are queried.
+    private List<ProductSearchIndex.Document> reconcile(CatalogueSnapshot snapshot) {
+        long[] ids = loadIds();
+        LocalDateTime since = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(snapshot.takenAtMillis() - reconcileMarginMillis), ZoneOffset.UTC);
+        Map<Long, ProductSearchIndex.Document> changed = loadChangedSince(since);
+        
+        List<ProductSearchIndex.Document> documents = new ArrayList<>(ids.length);
+        int next = 0;
+        for (ProductSearchIndex.Document document : snapshot.documents()) {
+            // Both in id order: skip the ids of products deleted since
+            while (next < ids.length && ids[next] < document.id) {
+                next++;
+            }
+            if (next < ids.length && ids[next] == document.id) {
+                ProductSearchIndex.Document current = changed.remove(document.id);
+                documents.add(current != null ? current : document);
+            }
+        }
+        documents.addAll(changed.values());
+        log.info("Catalogue snapshot of {} products reconciled: {} removed, {} changed or added",
+                snapshot.size(), snapshot.size() - (documents.size() - changed.size()), changed.size());
+        return documents;
+    }
+    
+    private long[] loadIds() {
+        long[] ids = new long[ID_BATCH_SIZE];
+        int count = 0;
+        Long afterId = 0L;
+        List<Long> batch;
+        do {
+            Long after = afterId;
+            batch = ReplicaRoutingDataSource.onPrimary(
+                    () -> productRepository.findIds(after, PageRequest.ofSize(ID_BATCH_SIZE)));
+            if (count + batch.size() > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(ids.length * 2, count + batch.size()));
+            }
+            for (Long id : batch) {
+                ids[count++] = id;
+                afterId = id;
+            }
+        } while (batch.size() == ID_BATCH_SIZE);
+        return Arrays.copyOf(ids, count);
+    }
+    
+    private Map<Long, ProductSearchIndex.Document> loadChangedSince(LocalDateTime since) {
+        Map<Long, ProductSearchIndex.Document> changed = new HashMap<>();
+        Long afterId = 0L;
+        List<Product> batch;
+        do {
+            Long after = afterId;
+            batch = ReplicaRoutingDataSource.onPrimary(
+                    () -> productRepository.findByUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(
+                            since, after, PageRequest.ofSize(BATCH_SIZE)));
+            for (Product product : batch) {
+                changed.put(product.getId(), ProductSearchIndex.Document.of(product));
+                afterId = product.getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        return changed;
+    }
+}
@@ -0,0 +1,40 @@
+package com.apparels.management.search;
+
+import org.springframework.data.domain.Sort;
+
+// Order of a sorted product listing, from the ?sort= parameter: price, name or createdAt,
+// prefixed with "-" for descending. Ties are broken by id in the same direction.
+public record ProductSort(Field field, boolean descending) {
+    
+    public enum Field {
+        PRICE("price"),
+        NAME("name"),
+        CREATED_AT("createdAt");
+        
+        private final String property;
+        
+        Field(String property) {
+            this.property = property;
+        }
+    }
+    
+    // Null when no sort was requested
+    public static ProductSort parse(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return null;
+        }
+        boolean descending = sort.startsWith("-");
+        String property = descending ? sort.substring(1) : sort;
+        for (Field field : Field.values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return new ProductSort(field, descending);
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort '" + sort + "', expected price, name or createdAt "
+                + "(prefixed with - for descending)");
+    }
+    
+    public Sort toSort() {
+        return Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, field.property, "id");
+    }
+}
@@ -0,0 +1,11 @@
+package com.apparels.management.search;
+
+// A request that only the search index can answer arrived while the index is being
+// built, at startup or during a rebuild after an import. Answered with 503 and
+// Retry-After, since the same request will succeed once the build completes.
+public class SearchIndexNotReadyException extends RuntimeException {
+    
+    public SearchIndexNotReadyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,148 @@
+package com.apparels.management.service;
+
+import com.apparels.management.config.MetricsConfig;
+import com.apparels.management.dto.InventoryRow;
+import com.apparels.management.dto.ProductSummary;
+import com.apparels.management.repository.InventoryRepository;
+import com.apparels.management.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Writes the full catalogue to an output stream straight from a database cursor.
+// Rows are DTO projections, so nothing accumulates in the persistence context
+// and heap use stays constant however many rows are exported.
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class CatalogueExportService {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private static final String[] PRODUCT_COLUMNS = {
+            "id", "name", "description", "price", "sku", "size", "color", "categoryId", "categoryName"
+    };
+    
+    private static final String[] INVENTORY_COLUMNS = {
+            "id", "productId", "sku", "name", "price", "size", "color", "categoryId", "categoryName",
+            "stockLevel", "reorderLevel", "locationId", "location", "lastUpdated"
+    };
+    
+    private final ProductRepository productRepository;
+    private final InventoryRepository inventoryRepository;
+    private final ObjectMapper objectMapper;
+    
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+        
+        private final String contentType;
+        private final String extension;
+        
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+        
+        public static Format from(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value + " (use csv or ndjson)");
+            }
+        }
+    }
+    
+    public void writeProducts(Format format, OutputStream out) throws IOException {
+        try (Stream<ProductSummary> products = productRepository.streamSummaries()) {
+            write(products, format, out, PRODUCT_COLUMNS, product -> new Object[] {
+                    product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                    product.getSku(), product.getSize(), product.getColor(),
+                    product.getCategory().getId(), product.getCategory().getName()
+            });
+        }
+    }
+    
+    public void writeInventory(Format format, OutputStream out) throws IOException {
+        try (Stream<InventoryRow> rows = inventoryRepository.streamRows()) {
+            write(rows, format, out, INVENTORY_COLUMNS, row -> new Object[] {
+                    row.getId(), row.getProduct().getId(), row.getProduct().getSku(), row.getProduct().getName(),
+                    row.getProduct().getPrice(), row.getProduct().getSize(), row.getProduct().getColor(),
+                    row.getProduct().getCategory().getId(), row.getProduct().getCategory().getName(),
+                    row.getStockLevel(), row.getReorderLevel(), row.getLocation().getId(), row.getLocation().getName(),
+                    row.getLastUpdated()
+            });
+        }
+    }
+    
+    private <T> void write(Stream<T> rows, Format format, OutputStream out, String[] columns,
+                           Function<T, Object[]> csvValues) throws IOException {
+        Iterator<T> iterator = rows.iterator();
+        if (format == Format.NDJSON) {
+            // One generator for the whole export; flushing after every row would turn each into a write call
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+            }
+            generator.close();
+            return;
+        }
+        
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writeCsvLine(writer, columns);
+        while (iterator.hasNext()) {
+            writeCsvLine(writer, csvValues.apply(iterator.next()));
+        }
+        writer.flush();
+    }
+    
+    private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write('\n');
+    }
+}
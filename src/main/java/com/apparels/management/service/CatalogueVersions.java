@@ -0,0 +1,48 @@
+package com.apparels.management.service;
+
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Version counters of the product and category tables, bumped after each
+// committed write through the services. They back the ETags of the catalogue
+// read endpoints, so a conditional GET is answered without a database query.
+// Counters start from the boot time, so ETags issued before a restart never match.
+// Writes made outside this application instance (another instance, SQL) are not seen.
+@Service
+public class CatalogueVersions {
+    
+    private final AtomicLong products = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong categories = new AtomicLong(System.currentTimeMillis());
+    private volatile long lastChangeMillis;
+    
+    public void productsChanged() {
+        TransactionCallbacks.afterCommit(() -> {
+            products.incrementAndGet();
+            lastChangeMillis = System.currentTimeMillis();
+        });
+    }
+    
+    public void categoriesChanged() {
+        TransactionCallbacks.afterCommit(() -> {
+            categories.incrementAndGet();
+            lastChangeMillis = System.currentTimeMillis();
+        });
+    }
+    
+    // Whether a write was committed in the last window, i.e. may not have reached a read replica yet
+    public boolean changedWithin(Duration window) {
+        return System.currentTimeMillis() - lastChangeMillis < window.toMillis();
+    }
+    
+    // Weak tags: one version is sent both gzip-encoded and as plain JSON, which are not
+    // byte-identical. Products embed their category, so their ETag covers both tables.
+    public String productsETag() {
+        return "W/\"p" + products.get() + "-" + categories.get() + "\"";
+    }
+    
+    public String categoriesETag() {
+        return "W/\"c" + categories.get() + "\"";
+    }
+}
@@ -1,8 +1,15 @@
 package com.apparels.management.service;
 
+import com.apparels.management.config.CacheConfig;
+import com.apparels.management.config.MetricsConfig;
 import com.apparels.management.entity.Category;
 import com.apparels.management.repository.CategoryRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,29 +19,51 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class CategoryService {
     
     private final CategoryRepository categoryRepository;
+    private final DashboardStatsService dashboardStatsService;
+    private final CatalogueVersions catalogueVersions;
     
-    public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+    // Cached, so read from the primary (see ProductService.getProductById)
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_LISTS, key = "#afterId + ':' + #limit")
+    public List<Category> getAllCategories(Long afterId, int limit) {
+        return categoryRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(limit));
     }
     
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "#id", unless = "#result == null")
     public Optional<Category> getCategoryById(Long id) {
         return categoryRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Category> getCategoryByName(String name) {
         return categoryRepository.findByName(name);
     }
     
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_LISTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.RESPONSES, allEntries = true)
+    })
     public Category createCategory(Category category) {
         if (categoryRepository.existsByName(category.getName())) {
             throw new IllegalArgumentException("Category with name '" + category.getName() + "' already exists");
         }
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        dashboardStatsService.categoryCreated();
+        catalogueVersions.categoriesChanged();
+        return saved;
     }
     
+    // Cached products embed their category, so they are dropped as well
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_LISTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS_BY_SKU, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.RESPONSES, allEntries = true)
+    })
     public Category updateCategory(Long id, Category categoryDetails) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
@@ -48,9 +77,16 @@ public class CategoryService {
         category.setName(categoryDetails.getName());
         category.setDescription(categoryDetails.getDescription());
         
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        catalogueVersions.categoriesChanged();
+        return saved;
     }
     
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_LISTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.RESPONSES, allEntries = true)
+    })
     public void deleteCategory(Long id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
@@ -61,6 +97,8 @@ public class CategoryService {
         }
         
         categoryRepository.deleteById(id);
+        dashboardStatsService.categoryDeleted();
+        catalogueVersions.categoriesChanged();
     }
 }
 
@@ -0,0 +1,61 @@
+package com.apparels.management.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Incremental RFC 4180 reader: quoted fields may contain commas, doubled quotes
+// and line breaks. Only the current record is held in memory.
+final class CsvRecordReader {
+    
+    private final BufferedReader reader;
+    
+    CsvRecordReader(Reader reader) {
+        this.reader = new BufferedReader(reader, 64 * 1024);
+    }
+    
+    // Returns the fields of the next record, or null at the end of the input
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            read = true;
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                    continue;
+                }
+                reader.mark(1);
+                int next = reader.read();
+                if (next == '"') {
+                    field.append('"');
+                } else {
+                    quoted = false;
+                    if (next != -1) {
+                        reader.reset();
+                    }
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!read) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
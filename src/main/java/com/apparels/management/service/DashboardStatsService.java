@@ -0,0 +1,122 @@
+package com.apparels.management.service;
+
+import com.apparels.management.config.ReplicaRoutingDataSource;
+import com.apparels.management.dto.DashboardStats;
+import com.apparels.management.entity.Inventory;
+import com.apparels.management.repository.CategoryRepository;
+import com.apparels.management.repository.InventoryRepository;
+import com.apparels.management.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Dashboard totals kept up to date by the write paths of the other services,
+// so reading them never touches the database. A periodic reconciliation
+// corrects any drift (e.g. rows changed outside the application).
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardStatsService {
+    
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final InventoryRepository inventoryRepository;
+    
+    private final AtomicLong totalProducts = new AtomicLong();
+    private final AtomicLong totalCategories = new AtomicLong();
+    private final AtomicLong totalInventory = new AtomicLong();
+    private final AtomicLong lowStockItems = new AtomicLong();
+    
+    public DashboardStats getStats() {
+        return new DashboardStats(
+                totalProducts.get(),
+                totalCategories.get(),
+                totalInventory.get(),
+                lowStockItems.get()
+        );
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${dashboard.stats.reconcile-interval-ms:300000}",
+               fixedDelayString = "${dashboard.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long products = correct(totalProducts, productRepository::count);
+        long categories = correct(totalCategories, categoryRepository::count);
+        long units = correct(totalInventory, inventoryRepository::sumStockLevel);
+        long lowStock = correct(lowStockItems, inventoryRepository::countLowStockItems);
+        
+        if (products != 0 || categories != 0 || units != 0 || lowStock != 0) {
+            log.debug("Reconciled dashboard stats by: products={}, categories={}, units={}, lowStock={}",
+                    products, categories, units, lowStock);
+        }
+    }
+    
+    // Corrects a total by the difference between the database count and the total as read
+    // just before counting, rather than overwriting it, so increments of writes that commit
+    // while the count runs are kept. A write the count already sees whose increment lands
+    // between the read and the count is counted twice until the next reconciliation.
+    private static long correct(AtomicLong total, Supplier<Long> count) {
+        long before = total.get();
+        long difference = ReplicaRoutingDataSource.onPrimary(count) - before;
+        if (difference != 0) {
+            total.addAndGet(difference);
+        }
+        return difference;
+    }
+    
+    public void productCreated() {
+        TransactionCallbacks.afterCommit(totalProducts::incrementAndGet);
+    }
+    
+    public void productDeleted() {
+        TransactionCallbacks.afterCommit(totalProducts::decrementAndGet);
+    }
+    
+    public void categoryCreated() {
+        TransactionCallbacks.afterCommit(totalCategories::incrementAndGet);
+    }
+    
+    public void categoryDeleted() {
+        TransactionCallbacks.afterCommit(totalCategories::decrementAndGet);
+    }
+    
+    // Applies the difference between the stock state before and after a write.
+    // Either side may be null for inventory that was created or deleted.
+    public void inventoryChanged(Integer oldStockLevel, Integer oldReorderLevel,
+                                 Integer newStockLevel, Integer newReorderLevel) {
+        long unitsDelta = valueOf(newStockLevel) - valueOf(oldStockLevel);
+        int lowStockDelta = (isLowStock(newStockLevel, newReorderLevel) ? 1 : 0)
+                - (isLowStock(oldStockLevel, oldReorderLevel) ? 1 : 0);
+        
+        if (unitsDelta == 0 && lowStockDelta == 0) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            totalInventory.addAndGet(unitsDelta);
+            lowStockItems.addAndGet(lowStockDelta);
+        });
+    }
+    
+    public void inventoryCreated(Inventory inventory) {
+        inventoryChanged(null, null, inventory.getStockLevel(), inventory.getReorderLevel());
+    }
+    
+    public void inventoryDeleted(Inventory inventory) {
+        inventoryChanged(inventory.getStockLevel(), inventory.getReorderLevel(), null, null);
+    }
+    
+    private static long valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+    
+    // Mirrors InventoryRepository.countLowStockItems and findLowStockRows (stockLevel <= reorderLevel)
+    private static boolean isLowStock(Integer stockLevel, Integer reorderLevel) {
+        return stockLevel != null && reorderLevel != null && stockLevel <= reorderLevel;
+    }
+}
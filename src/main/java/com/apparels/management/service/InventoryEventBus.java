@@ -0,0 +1,285 @@
+package com.apparels.management.service;
+
+import com.apparels.management.dto.InventoryStockRef;
+import com.apparels.management.dto.InventoryStreamEvent;
+import com.apparels.management.dto.LocationSummary;
+import com.apparels.management.dto.LowStockAlert;
+import com.apparels.management.dto.ProductSummary;
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Inventory;
+import com.apparels.management.entity.Location;
+import com.apparels.management.entity.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// In-process fan-out of committed inventory and product changes to stream
+// subscribers. Publishing only offers the event to each subscriber's bounded
+// queue; a subscriber whose queue is full is too slow to keep up and is dropped
+// (it reconnects and resumes from the replay buffer, or resyncs). Queues are
+// drained on virtual threads, so a subscriber blocked on a slow socket parks only
+// its own virtual thread and thousands of subscribers share a few carrier threads.
+@Slf4j
+@Service
+public class InventoryEventBus {
+    
+    // Delivers events to one subscriber, never concurrently
+    public interface Subscriber {
+        
+        // An empty list is a keep-alive
+        void deliver(List<InventoryStreamEvent> events) throws IOException;
+        
+        // Called once when the bus stops delivering; dropped is true for a slow consumer
+        void closed(boolean dropped);
+    }
+    
+    private static final int MAX_BATCH = 64;
+    
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final int replaySize;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter droppedSubscribers;
+    
+    // Guarded by itself; also orders publish against subscribe, so a new subscriber
+    // sees every event exactly once either from the replay or from its queue
+    private final Deque<InventoryStreamEvent> recent = new ArrayDeque<>();
+    // Starts from the clock so event ids of an earlier run are always older than the replay buffer
+    private long sequence = System.currentTimeMillis() * 1000;
+    
+    public InventoryEventBus(@Value("${inventory.stream.queue-capacity:256}") int queueCapacity,
+                             @Value("${inventory.stream.max-subscribers:10000}") int maxSubscribers,
+                             @Value("${inventory.stream.replay-size:1024}") int replaySize,
+                             MeterRegistry meterRegistry) {
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.replaySize = replaySize;
+        Gauge.builder("apparels.inventory.stream.subscribers", subscriptions, Set::size)
+                .description("Open inventory stream subscriptions")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("apparels.inventory.stream.dropped")
+                .description("Inventory stream subscribers dropped for falling behind")
+                .register(meterRegistry);
+    }
+    
+    // Registers a subscriber. With lastEventId (a reconnect) the events it missed are
+    // replayed first, or a RESYNC event is sent when they are no longer buffered.
+    public Subscription subscribe(Long lastEventId, Subscriber subscriber) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many inventory stream subscribers");
+        }
+        Subscription subscription = new Subscription(subscriber);
+        synchronized (recent) {
+            if (lastEventId != null) {
+                InventoryStreamEvent oldest = recent.peekFirst();
+                boolean replayable = lastEventId <= sequence && sequence - lastEventId < queueCapacity
+                        && (oldest != null ? lastEventId >= oldest.getSequence() - 1 : lastEventId == sequence);
+                if (replayable) {
+                    for (InventoryStreamEvent event : recent) {
+                        if (event.getSequence() > lastEventId) {
+                            subscription.queue.add(event);
+                        }
+                    }
+                } else {
+                    InventoryStreamEvent resync = InventoryStreamEvent.of(InventoryStreamEvent.Type.RESYNC, null, null);
+                    resync.setSequence(sequence);
+                    subscription.queue.add(resync);
+                }
+            }
+            subscriptions.add(subscription);
+        }
+        subscription.schedule();
+        return subscription;
+    }
+    
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+    
+    public void inventoryChanged(Inventory inventory) {
+        InventoryStreamEvent event = InventoryStreamEvent.of(InventoryStreamEvent.Type.INVENTORY_CHANGED,
+                inventory.getId(), inventory.getProduct() != null ? inventory.getProduct().getId() : null);
+        event.setStockLevel(inventory.getStockLevel());
+        event.setReorderLevel(inventory.getReorderLevel());
+        Location location = inventory.getLocation();
+        if (location != null) {
+            event.setLocation(new LocationSummary(location.getId(), location.getName()));
+        }
+        publishAfterCommit(event);
+    }
+    
+    public void inventoryChanged(InventoryStockRef ref, int stockLevel) {
+        InventoryStreamEvent event = InventoryStreamEvent.of(InventoryStreamEvent.Type.INVENTORY_CHANGED,
+                ref.getId(), ref.getProductId());
+        event.setStockLevel(stockLevel);
+        event.setReorderLevel(ref.getReorderLevel());
+        publishAfterCommit(event);
+    }
+    
+    public void inventoryDeleted(Long inventoryId, Long productId) {
+        publishAfterCommit(InventoryStreamEvent.of(InventoryStreamEvent.Type.INVENTORY_DELETED, inventoryId, productId));
+    }
+    
+    public void productSaved(Product product) {
+        InventoryStreamEvent event = InventoryStreamEvent.of(InventoryStreamEvent.Type.PRODUCT_SAVED, null, product.getId());
+        Category category = product.getCategory();
+        event.setProduct(new ProductSummary(product.getId(), product.getName(), product.getDescription(),
+                product.getPrice(), product.getSku(), product.getSize(), product.getColor(),
+                category != null ? category.getId() : null, category != null ? category.getName() : null));
+        publishAfterCommit(event);
+    }
+    
+    public void productDeleted(Long productId) {
+        publishAfterCommit(InventoryStreamEvent.of(InventoryStreamEvent.Type.PRODUCT_DELETED, null, productId));
+    }
+    
+    // A bulk change (e.g. a catalogue import) is announced as one RESYNC instead of an event per row
+    public void catalogueReloaded() {
+        publish(InventoryStreamEvent.of(InventoryStreamEvent.Type.RESYNC, null, null));
+    }
+    
+    // Low stock transitions are already published after commit
+    @EventListener
+    public void onLowStockAlert(LowStockAlert alert) {
+        InventoryStreamEvent event = InventoryStreamEvent.of(alert.getTransition() == LowStockAlert.Transition.ENTERED
+                ? InventoryStreamEvent.Type.LOW_STOCK_ENTERED
+                : InventoryStreamEvent.Type.LOW_STOCK_LEFT, alert.getInventoryId(), null);
+        event.setStockLevel(alert.getStockLevel());
+        event.setReorderLevel(alert.getReorderLevel());
+        publish(event);
+    }
+    
+    // Keeps idle connections open through proxies and detects clients that went away
+    @Scheduled(initialDelayString = "${inventory.stream.heartbeat-interval-ms:15000}",
+               fixedDelayString = "${inventory.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            subscription.heartbeatDue.set(true);
+            subscription.schedule();
+        }
+    }
+    
+    @PreDestroy
+    public void close() {
+        for (Subscription subscription : subscriptions) {
+            subscription.close(false);
+        }
+        deliveryExecutor.shutdownNow();
+    }
+    
+    private void publishAfterCommit(InventoryStreamEvent event) {
+        TransactionCallbacks.afterCommit(() -> publish(event));
+    }
+    
+    private void publish(InventoryStreamEvent event) {
+        List<Subscription> slow = null;
+        synchronized (recent) {
+            event.setSequence(++sequence);
+            recent.addLast(event);
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+            for (Subscription subscription : subscriptions) {
+                if (!subscription.queue.offer(event)) {
+                    if (slow == null) {
+                        slow = new ArrayList<>();
+                    }
+                    slow.add(subscription);
+                }
+            }
+        }
+        
+        for (Subscription subscription : subscriptions) {
+            subscription.schedule();
+        }
+        if (slow != null) {
+            for (Subscription subscription : slow) {
+                log.debug("Dropping inventory stream subscriber that fell {} events behind", queueCapacity);
+                droppedSubscribers.increment();
+                subscription.close(true);
+            }
+        }
+    }
+    
+    public final class Subscription {
+        
+        private final Subscriber subscriber;
+        private final BlockingQueue<InventoryStreamEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+        // Set while a delivery task runs or is queued, so deliveries to one subscriber never overlap
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        
+        private Subscription(Subscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+        
+        // Stops deliveries, e.g. when the client disconnected
+        public void cancel() {
+            close(false);
+        }
+        
+        private void schedule() {
+            if (closed.get() || (queue.isEmpty() && !heartbeatDue.get())) {
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    deliveryExecutor.execute(this::drain);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+        
+        private void drain() {
+            List<InventoryStreamEvent> batch = new ArrayList<>(MAX_BATCH);
+            try {
+                while (!closed.get()) {
+                    queue.drainTo(batch, MAX_BATCH);
+                    boolean heartbeat = heartbeatDue.getAndSet(false);
+                    if (batch.isEmpty() && !heartbeat) {
+                        break;
+                    }
+                    subscriber.deliver(batch);
+                    batch.clear();
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Inventory stream subscriber disconnected: {}", e.getMessage());
+                close(false);
+            } finally {
+                scheduled.set(false);
+            }
+            // An event offered after the last drain but before the flag was cleared
+            schedule();
+        }
+        
+        private void close(boolean dropped) {
+            if (closed.compareAndSet(false, true)) {
+                subscriptions.remove(this);
+                queue.clear();
+                subscriber.closed(dropped);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.apparels.management.service;
+
+import com.apparels.management.config.MetricsConfig;
+import com.apparels.management.entity.Inventory;
+import com.apparels.management.entity.InventoryMovement;
+import com.apparels.management.entity.InventorySnapshot;
+import com.apparels.management.repository.InventoryMovementRepository;
+import com.apparels.management.repository.InventoryRepository;
+import com.apparels.management.repository.InventorySnapshotRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Journal of every stock change plus periodic per-row snapshots. The stock
+// level of a row at any time is its latest snapshot before that time plus the
+// movements journaled after it, which also lets a row be rebuilt from the
+// journal without replaying its whole history.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class InventoryLedgerService {
+    
+    private final InventoryMovementRepository movementRepository;
+    private final InventorySnapshotRepository snapshotRepository;
+    private final InventoryRepository inventoryRepository;
+    private final DashboardStatsService dashboardStatsService;
+    private final LowStockTracker lowStockTracker;
+    private final InventoryEventBus inventoryEventBus;
+    private final Optional<StockWriteBehindBuffer> writeBehindBuffer;
+    
+    // Called by the stock write paths inside their own transaction
+    public void record(Long inventoryId, InventoryMovement.Type type, int quantity, String reference) {
+        if (quantity == 0) {
+            return;
+        }
+        movementRepository.save(new InventoryMovement(null, inventoryId, type, quantity, reference, LocalDateTime.now()));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<InventoryMovement> getMovements(Long inventoryId, Long afterId, int limit) {
+        return movementRepository.findByInventoryIdAndIdGreaterThanOrderByIdAsc(inventoryId, afterId, PageRequest.ofSize(limit));
+    }
+    
+    // Stock that predates the journal is only known from the row's first snapshot on
+    @Transactional(readOnly = true)
+    public int getStockLevelAt(Long inventoryId, LocalDateTime at) {
+        if (!inventoryRepository.existsById(inventoryId)) {
+            throw new RuntimeException("Inventory not found with id: " + inventoryId);
+        }
+        Optional<InventorySnapshot> snapshot =
+                snapshotRepository.findFirstByInventoryIdAndTakenAtLessThanEqualOrderByIdDesc(inventoryId, at);
+        int base = snapshot.map(InventorySnapshot::getStockLevel).orElse(0);
+        long after = snapshot.map(InventorySnapshot::getLastMovementId).orElse(0L);
+        return Math.toIntExact(base + movementRepository.sumQuantity(inventoryId, after, at));
+    }
+    
+    // Recomputes the row's stock level from its latest snapshot and the movements
+    // since, correcting the row if it drifted (e.g. changed outside the application)
+    public Inventory rebuild(Long inventoryId) {
+        Inventory inventory = inventoryRepository.findByIdForUpdate(inventoryId)
+                .orElseThrow(() -> new RuntimeException("Inventory not found with id: " + inventoryId));
+        Optional<InventorySnapshot> snapshot = snapshotRepository.findFirstByInventoryIdOrderByIdDesc(inventoryId);
+        int base = snapshot.map(InventorySnapshot::getStockLevel).orElse(0);
+        long after = snapshot.map(InventorySnapshot::getLastMovementId).orElse(0L);
+        int rebuilt = Math.toIntExact(base + movementRepository.sumQuantity(inventoryId, after));
+        
+        int current = inventory.getStockLevel();
+        if (rebuilt != current) {
+            log.warn("Inventory {} stock level {} differs from journal {}; correcting", inventoryId, current, rebuilt);
+            inventory.setStockLevel(rebuilt);
+            inventoryRepository.save(inventory);
+            dashboardStatsService.inventoryChanged(current, inventory.getReorderLevel(), rebuilt, inventory.getReorderLevel());
+            lowStockTracker.inventoryChanged(inventoryId, rebuilt, inventory.getReorderLevel());
+            inventoryEventBus.inventoryChanged(inventory);
+            writeBehindBuffer.ifPresent(buffer -> TransactionCallbacks.afterCommit(() -> buffer.invalidate(inventoryId)));
+        }
+        return inventory;
+    }
+    
+    // Runs once at startup so rows that predate the journal get a baseline
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${inventory.ledger.snapshot-interval-ms:3600000}",
+               fixedDelayString = "${inventory.ledger.snapshot-interval-ms:3600000}")
+    public void snapshot() {
+        int snapshots = snapshotRepository.snapshotChangedInventory(LocalDateTime.now());
+        if (snapshots > 0) {
+            log.info("Took {} inventory snapshots", snapshots);
+        }
+    }
+}
@@ -1,129 +1,575 @@
 package com.apparels.management.service;
 
+import com.apparels.management.config.MetricsConfig;
+import com.apparels.management.dto.InventoryRow;
+import com.apparels.management.dto.InventoryStockRef;
+import com.apparels.management.dto.ProductStockTotal;
+import com.apparels.management.dto.StockAdjustmentRequest;
+import com.apparels.management.dto.StockAdjustmentResult;
+import com.apparels.management.dto.StockTransferRequest;
+import com.apparels.management.dto.StockTransferResult;
 import com.apparels.management.entity.Inventory;
+import com.apparels.management.entity.InventoryMovement;
+import com.apparels.management.entity.Location;
 import com.apparels.management.entity.Product;
+import com.apparels.management.repository.InventoryBatchRepository;
 import com.apparels.management.repository.InventoryRepository;
 import com.apparels.management.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class InventoryService {
     
     private final InventoryRepository inventoryRepository;
     private final ProductRepository productRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final LocationService locationService;
+    private final DashboardStatsService dashboardStatsService;
+    private final LowStockTracker lowStockTracker;
+    private final InventoryEventBus inventoryEventBus;
+    private final InventoryLedgerService inventoryLedgerService;
+    private final Optional<StockWriteBehindBuffer> writeBehindBuffer;
+    private final TransactionTemplate transactionTemplate;
     
-    public List<Inventory> getAllInventory() {
-        return inventoryRepository.findAll();
+    @Value("${inventory.adjustments.max-lines:10000}")
+    private int maxAdjustmentLines;
+    
+    @Transactional(readOnly = true)
+    public List<InventoryRow> getAllInventory(Long afterId, int limit) {
+        return inventoryRepository.findRows(afterId, PageRequest.ofSize(limit));
     }
     
+    @Transactional(readOnly = true)
     public Optional<Inventory> getInventoryById(Long id) {
         return inventoryRepository.findById(id);
     }
     
-    public Optional<Inventory> getInventoryByProductId(Long productId) {
-        return inventoryRepository.findByProductId(productId);
+    // The product's row at the given location, or at the default location (looked up,
+    // not created, so the read stays read-only)
+    @Transactional(readOnly = true)
+    public Optional<Inventory> getInventoryByProductId(Long productId, Long locationId) {
+        if (locationId == null) {
+            return locationService.findDefaultLocation()
+                    .flatMap(location -> inventoryRepository.findByProductIdAndLocationId(productId, location.getId()));
+        }
+        return inventoryRepository.findByProductIdAndLocationId(productId, locationId);
+    }
+    
+    // The product's rows at all locations
+    @Transactional(readOnly = true)
+    public List<InventoryRow> getInventoryRowsByProductId(Long productId) {
+        return inventoryRepository.findRowsByProductId(productId);
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<ProductStockTotal> getStockTotal(Long productId) {
+        return inventoryRepository.findStockTotal(productId);
     }
     
+    // Per-product totals over all locations, keyset paginated by product id
+    @Transactional(readOnly = true)
+    public List<ProductStockTotal> getStockTotals(Long afterId, int limit) {
+        return inventoryRepository.findStockTotals(afterId, PageRequest.ofSize(limit));
+    }
+    
+    // The location may be given by id or name; without one the default location is used
     public Inventory createInventory(Long productId, Inventory inventory) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        Location location = locationService.resolve(inventory.getLocation());
         
-        // Check if inventory already exists for this product
-        if (inventoryRepository.findByProductId(productId).isPresent()) {
-            throw new IllegalStateException("Inventory already exists for product with id: " + productId);
+        // Check if inventory already exists for this product at the location
+        if (inventoryRepository.findByProductIdAndLocationId(productId, location.getId()).isPresent()) {
+            throw new IllegalStateException("Inventory already exists for product with id: " + productId
+                    + " at location: " + location.getName());
         }
         
         inventory.setProduct(product);
-        return inventoryRepository.save(inventory);
+        inventory.setLocation(location);
+        Inventory saved = inventoryRepository.save(inventory);
+        inventoryLedgerService.record(saved.getId(), InventoryMovement.Type.RECEIVE, saved.getStockLevel(), "initial stock");
+        dashboardStatsService.inventoryCreated(saved);
+        lowStockTracker.inventoryChanged(saved.getId(), saved.getStockLevel(), saved.getReorderLevel());
+        inventoryEventBus.inventoryChanged(saved);
+        return saved;
     }
     
+    // Absolute writes lock the row before reading it, so the journaled difference is
+    // against the level they replace and no concurrent relative write is lost in between
     public Inventory updateInventory(Long id, Inventory inventoryDetails) {
-        Inventory inventory = inventoryRepository.findById(id)
+        if (writeBehindBuffer.isPresent()) {
+            return updateInventoryWriteBehind(id, inventoryDetails);
+        }
+        Inventory inventory = inventoryRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Inventory not found with id: " + id));
         
+        Integer oldStockLevel = inventory.getStockLevel();
+        Integer oldReorderLevel = inventory.getReorderLevel();
+        
+        // A request without a location leaves the row where it is
+        Location location = inventoryDetails.getLocation() != null
+                ? locationService.resolve(inventoryDetails.getLocation())
+                : inventory.getLocation();
+        checkLocationFree(inventory.getProduct().getId(), inventory.getLocation().getId(), location);
+        
         inventory.setStockLevel(inventoryDetails.getStockLevel());
-        inventory.setLocation(inventoryDetails.getLocation());
+        inventory.setLocation(location);
         inventory.setReorderLevel(inventoryDetails.getReorderLevel());
         
-        return inventoryRepository.save(inventory);
+        Inventory saved = inventoryRepository.save(inventory);
+        inventoryLedgerService.record(id, InventoryMovement.Type.ADJUST, saved.getStockLevel() - oldStockLevel, "inventory update");
+        invalidateWriteBehind(id);
+        dashboardStatsService.inventoryChanged(oldStockLevel, oldReorderLevel,
+                saved.getStockLevel(), saved.getReorderLevel());
+        lowStockTracker.inventoryChanged(id, saved.getStockLevel(), saved.getReorderLevel());
+        inventoryEventBus.inventoryChanged(saved);
+        return saved;
     }
     
-    public Inventory updateStockLevel(Long id, Integer newStockLevel) {
-        Inventory inventory = inventoryRepository.findById(id)
+    // In write-behind mode the level is set through the buffer, replacing its pending
+    // deltas, before the row lock is taken: a flush holding the buffer's flush lock may
+    // be waiting for that lock. Location and reorder level are then updated under it.
+    private Inventory updateInventoryWriteBehind(Long id, Inventory inventoryDetails) {
+        if (inventoryDetails.getStockLevel() == null || inventoryDetails.getStockLevel() < 0) {
+            throw new IllegalArgumentException("Stock level cannot be negative");
+        }
+        InventoryStockRef ref = inventoryRepository.findStockRefsByIdIn(Set.of(id)).stream().findFirst()
                 .orElseThrow(() -> new RuntimeException("Inventory not found with id: " + id));
+        Location location = inventoryDetails.getLocation() != null
+                ? locationService.resolve(inventoryDetails.getLocation())
+                : null;
+        if (location != null) {
+            checkLocationFree(ref.getProductId(), ref.getLocationId(), location);
+        }
+        int stockLevel = writeBehindBuffer.get().set(id, inventoryDetails.getStockLevel()).getStockLevel();
         
-        if (newStockLevel < 0) {
-            throw new IllegalArgumentException("Stock level cannot be negative");
+        Inventory inventory = inventoryRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("Inventory not found with id: " + id));
+        Integer oldReorderLevel = inventory.getReorderLevel();
+        if (location != null) {
+            inventory.setLocation(location);
         }
+        inventory.setReorderLevel(inventoryDetails.getReorderLevel());
+        Inventory saved = inventoryRepository.save(inventory);
+        invalidateWriteBehind(id);
+        dashboardStatsService.inventoryChanged(stockLevel, oldReorderLevel, stockLevel, saved.getReorderLevel());
+        lowStockTracker.inventoryChanged(id, stockLevel, saved.getReorderLevel());
         
-        inventory.setStockLevel(newStockLevel);
-        return inventoryRepository.save(inventory);
+        // The row's own stock_level lags the buffer until the next flush
+        Inventory updated = new Inventory(id, saved.getProduct(), stockLevel, saved.getLocation(),
+                saved.getReorderLevel(), saved.getLastUpdated());
+        inventoryEventBus.inventoryChanged(updated);
+        return updated;
     }
     
-    public Inventory updateStockLevelByProductId(Long productId, Integer newStockLevel) {
-        Inventory inventory = inventoryRepository.findByProductId(productId)
+    private void checkLocationFree(Long productId, Long currentLocationId, Location location) {
+        if (!location.getId().equals(currentLocationId)
+                && inventoryRepository.findByProductIdAndLocationId(productId, location.getId()).isPresent()) {
+            throw new IllegalStateException("Inventory already exists for product with id: " + productId
+                    + " at location: " + location.getName());
+        }
+    }
+    
+    public Inventory updateStockLevel(Long id, Integer newStockLevel) {
+        if (writeBehindBuffer.isPresent()) {
+            checkStockLevel(newStockLevel);
+            return writeBehindBuffer.get().set(id, newStockLevel);
+        }
+        Inventory inventory = inventoryRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("Inventory not found with id: " + id));
+        
+        checkStockLevel(newStockLevel);
+        return saveStockLevel(inventory, newStockLevel);
+    }
+    
+    public Inventory updateStockLevelByProductId(Long productId, Long locationId, Integer newStockLevel) {
+        if (writeBehindBuffer.isPresent()) {
+            checkStockLevel(newStockLevel);
+            Inventory inventory = inventoryRepository.findByProductIdAndLocationId(productId, locationIdOrDefault(locationId))
+                    .orElseThrow(() -> new RuntimeException("Inventory not found for product with id: " + productId));
+            return writeBehindBuffer.get().set(inventory.getId(), newStockLevel);
+        }
+        Inventory inventory = inventoryRepository.findByProductIdAndLocationIdForUpdate(productId, locationIdOrDefault(locationId))
                 .orElseThrow(() -> new RuntimeException("Inventory not found for product with id: " + productId));
         
+        checkStockLevel(newStockLevel);
+        return saveStockLevel(inventory, newStockLevel);
+    }
+    
+    private static void checkStockLevel(Integer newStockLevel) {
         if (newStockLevel < 0) {
             throw new IllegalArgumentException("Stock level cannot be negative");
         }
-        
-        inventory.setStockLevel(newStockLevel);
-        return inventoryRepository.save(inventory);
     }
     
     public void deleteInventory(Long id) {
-        if (!inventoryRepository.existsById(id)) {
-            throw new RuntimeException("Inventory not found with id: " + id);
+        Inventory inventory = inventoryRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Inventory not found with id: " + id));
+        inventoryRepository.delete(inventory);
+        invalidateWriteBehind(id);
+        dashboardStatsService.inventoryDeleted(inventory);
+        lowStockTracker.inventoryDeleted(id);
+        inventoryEventBus.inventoryDeleted(id, inventory.getProduct().getId());
+    }
+    
+    // Served from the low stock tracker once it is loaded; the page of ids is
+    // then loaded by primary key in one JOIN query
+    @Transactional(readOnly = true)
+    public List<InventoryRow> getLowStockItems(Long afterId, int limit) {
+        if (!lowStockTracker.isReady()) {
+            return inventoryRepository.findLowStockRows(afterId, PageRequest.ofSize(limit));
         }
-        inventoryRepository.deleteById(id);
+        List<Long> ids = lowStockTracker.page(afterId, limit);
+        return ids.isEmpty() ? List.of() : inventoryRepository.findRowsByIdIn(ids);
     }
     
-    public List<Inventory> getLowStockItems() {
-        return inventoryRepository.findLowStockItems();
+    // The limit rows furthest below their reorder level, most severe first
+    @Transactional(readOnly = true)
+    public List<InventoryRow> getMostSevereLowStockItems(int limit) {
+        if (!lowStockTracker.isReady()) {
+            return inventoryRepository.findLowStockRowsBySeverity(PageRequest.ofSize(limit));
+        }
+        List<Long> ids = lowStockTracker.mostSevere(limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, InventoryRow> rows = new HashMap<>();
+        inventoryRepository.findRowsByIdIn(ids).forEach(row -> rows.put(row.getId(), row));
+        List<InventoryRow> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            InventoryRow row = rows.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<InventoryRow> getItemsBelowStockLevel(Integer stockLevel, Long afterId, int limit) {
+        return inventoryRepository.findRowsByStockLevelLessThan(stockLevel, afterId, PageRequest.ofSize(limit));
     }
     
-    public List<Inventory> getItemsBelowStockLevel(Integer stockLevel) {
-        return inventoryRepository.findByStockLevelLessThan(stockLevel);
+    @Transactional(readOnly = true)
+    public List<InventoryRow> getInventoryByLocation(String location, Long afterId, int limit) {
+        return inventoryRepository.findRowsByLocationName(location, afterId, PageRequest.ofSize(limit));
     }
     
-    public List<Inventory> getInventoryByLocation(String location) {
-        return inventoryRepository.findByLocation(location);
+    @Transactional(readOnly = true)
+    public List<InventoryRow> getInventoryByLocationId(Long locationId, Long afterId, int limit) {
+        return inventoryRepository.findRowsByLocationId(locationId, afterId, PageRequest.ofSize(limit));
     }
     
+    // add-stock and remove-stock open no transaction of their own, so in write-behind
+    // mode they never touch the connection pool; the direct path opens one below.
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Inventory addStock(Long id, Integer quantity) {
-        Inventory inventory = inventoryRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Inventory not found with id: " + id));
-        
         if (quantity < 0) {
             throw new IllegalArgumentException("Quantity to add cannot be negative");
         }
+        if (writeBehindBuffer.isPresent()) {
+            return writeBehindBuffer.get().add(id, quantity);
+        }
         
-        inventory.setStockLevel(inventory.getStockLevel() + quantity);
-        return inventoryRepository.save(inventory);
+        return transactionTemplate.execute(status -> {
+            if (inventoryRepository.incrementStock(id, quantity, LocalDateTime.now()) == 0) {
+                throw new RuntimeException("Inventory not found with id: " + id);
+            }
+            
+            inventoryLedgerService.record(id, InventoryMovement.Type.RECEIVE, quantity, "add stock");
+            Inventory inventory = inventoryRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Inventory not found with id: " + id));
+            dashboardStatsService.inventoryChanged(inventory.getStockLevel() - quantity, inventory.getReorderLevel(),
+                    inventory.getStockLevel(), inventory.getReorderLevel());
+            lowStockTracker.inventoryChanged(id, inventory.getStockLevel(), inventory.getReorderLevel());
+            inventoryEventBus.inventoryChanged(inventory);
+            return inventory;
+        });
     }
     
+    // The availability check and the decrement are one conditional UPDATE, so two
+    // concurrent removals cannot both pass the check against the same stock.
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Inventory removeStock(Long id, Integer quantity) {
-        Inventory inventory = inventoryRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Inventory not found with id: " + id));
-        
         if (quantity < 0) {
             throw new IllegalArgumentException("Quantity to remove cannot be negative");
         }
+        if (writeBehindBuffer.isPresent()) {
+            return writeBehindBuffer.get().remove(id, quantity);
+        }
+        
+        return transactionTemplate.execute(status -> {
+            if (inventoryRepository.decrementStock(id, quantity, LocalDateTime.now()) == 0) {
+                Inventory inventory = inventoryRepository.findById(id)
+                        .orElseThrow(() -> new RuntimeException("Inventory not found with id: " + id));
+                throw new IllegalStateException("Insufficient stock. Available: " + inventory.getStockLevel() + ", Requested: " + quantity);
+            }
+            
+            inventoryLedgerService.record(id, InventoryMovement.Type.SELL, -quantity, "remove stock");
+            Inventory inventory = inventoryRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Inventory not found with id: " + id));
+            dashboardStatsService.inventoryChanged(inventory.getStockLevel() + quantity, inventory.getReorderLevel(),
+                    inventory.getStockLevel(), inventory.getReorderLevel());
+            lowStockTracker.inventoryChanged(id, inventory.getStockLevel(), inventory.getReorderLevel());
+            inventoryEventBus.inventoryChanged(inventory);
+            return inventory;
+        });
+    }
+    
+    // Moves stock of a product between two locations in one transaction, creating the
+    // destination row if needed. The two rows are updated in id order, so opposite
+    // concurrent transfers cannot deadlock, and the decrement is conditional, so the
+    // source never goes negative; if it fails the increment is rolled back with it.
+    public StockTransferResult transferStock(StockTransferRequest request) {
+        if (request.getProductId() == null || request.getFromLocationId() == null || request.getToLocationId() == null) {
+            throw new IllegalArgumentException("productId, fromLocationId and toLocationId are required");
+        }
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Quantity to transfer must be positive");
+        }
+        if (request.getFromLocationId().equals(request.getToLocationId())) {
+            throw new IllegalArgumentException("Source and destination location must differ");
+        }
         
-        if (inventory.getStockLevel() < quantity) {
-            throw new IllegalStateException("Insufficient stock. Available: " + inventory.getStockLevel() + ", Requested: " + quantity);
+        Long productId = request.getProductId();
+        int quantity = request.getQuantity();
+        Inventory source = inventoryRepository.findByProductIdAndLocationId(productId, request.getFromLocationId())
+                .orElseThrow(() -> new RuntimeException("Inventory not found for product with id: " + productId
+                        + " at location with id: " + request.getFromLocationId()));
+        Inventory target = inventoryRepository.findByProductIdAndLocationId(productId, request.getToLocationId())
+                .orElse(null);
+        if (target == null) {
+            Inventory created = new Inventory();
+            created.setStockLevel(0);
+            created.setReorderLevel(source.getReorderLevel());
+            created.setLocation(new Location(request.getToLocationId(), null, null));
+            target = createInventory(productId, created);
         }
+        Long sourceId = source.getId();
+        Long targetId = target.getId();
+        String sourceName = source.getLocation().getName();
+        String targetName = target.getLocation().getName();
         
-        inventory.setStockLevel(inventory.getStockLevel() - quantity);
-        return inventoryRepository.save(inventory);
+        LocalDateTime now = LocalDateTime.now();
+        if (targetId < sourceId) {
+            inventoryRepository.incrementStock(targetId, quantity, now);
+        }
+        if (inventoryRepository.decrementStock(sourceId, quantity, now) == 0) {
+            Inventory current = inventoryRepository.findById(sourceId)
+                    .orElseThrow(() -> new RuntimeException("Inventory not found with id: " + sourceId));
+            throw new IllegalStateException("Insufficient stock. Available: " + current.getStockLevel() + ", Requested: " + quantity);
+        }
+        if (targetId > sourceId) {
+            inventoryRepository.incrementStock(targetId, quantity, now);
+        }
+        
+        inventoryLedgerService.record(sourceId, InventoryMovement.Type.TRANSFER, -quantity, "transfer to " + targetName);
+        inventoryLedgerService.record(targetId, InventoryMovement.Type.TRANSFER, quantity, "transfer from " + sourceName);
+        Inventory from = inventoryRepository.findById(sourceId)
+                .orElseThrow(() -> new RuntimeException("Inventory not found with id: " + sourceId));
+        Inventory to = inventoryRepository.findById(targetId)
+                .orElseThrow(() -> new RuntimeException("Inventory not found with id: " + targetId));
+        for (Inventory inventory : List.of(from, to)) {
+            int delta = inventory == from ? -quantity : quantity;
+            invalidateWriteBehind(inventory.getId());
+            dashboardStatsService.inventoryChanged(inventory.getStockLevel() - delta, inventory.getReorderLevel(),
+                    inventory.getStockLevel(), inventory.getReorderLevel());
+            lowStockTracker.inventoryChanged(inventory.getId(), inventory.getStockLevel(), inventory.getReorderLevel());
+            inventoryEventBus.inventoryChanged(inventory);
+        }
+        return new StockTransferResult(from, to);
+    }
+    
+    private Long locationIdOrDefault(Long locationId) {
+        return locationId != null ? locationId : locationService.getDefaultLocation().getId();
+    }
+    
+    // Counters of the write-behind buffer re-read rows written by any other path
+    private void invalidateWriteBehind(Long inventoryId) {
+        writeBehindBuffer.ifPresent(buffer -> TransactionCallbacks.afterCommit(() -> buffer.invalidate(inventoryId)));
+    }
+    
+    private Inventory saveStockLevel(Inventory inventory, Integer newStockLevel) {
+        Integer oldStockLevel = inventory.getStockLevel();
+        inventory.setStockLevel(newStockLevel);
+        Inventory saved = inventoryRepository.save(inventory);
+        inventoryLedgerService.record(saved.getId(), InventoryMovement.Type.ADJUST, newStockLevel - oldStockLevel, "stock level update");
+        invalidateWriteBehind(saved.getId());
+        dashboardStatsService.inventoryChanged(oldStockLevel, saved.getReorderLevel(),
+                saved.getStockLevel(), saved.getReorderLevel());
+        lowStockTracker.inventoryChanged(saved.getId(), saved.getStockLevel(), saved.getReorderLevel());
+        inventoryEventBus.inventoryChanged(saved);
+        return saved;
+    }
+    
+    // Applies a batch of stock adjustments. All lines are resolved and validated
+    // in one pass against a running stock level per inventory row, then the net
+    // delta per row is written with a single JDBC batch. Lines that fail
+    // validation are reported and skipped; the rest are applied.
+    public List<StockAdjustmentResult> applyAdjustments(List<StockAdjustmentRequest> adjustments) {
+        if (adjustments == null || adjustments.isEmpty()) {
+            throw new IllegalArgumentException("At least one adjustment is required");
+        }
+        if (adjustments.size() > maxAdjustmentLines) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxAdjustmentLines + " adjustments");
+        }
+        
+        Set<Long> inventoryIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        Set<String> skus = new HashSet<>();
+        Set<Long> locationIds = new HashSet<>();
+        boolean usesDefaultLocation = false;
+        for (StockAdjustmentRequest adjustment : adjustments) {
+            if (adjustment.getInventoryId() != null) {
+                inventoryIds.add(adjustment.getInventoryId());
+                continue;
+            } else if (adjustment.getProductId() != null) {
+                productIds.add(adjustment.getProductId());
+            } else if (adjustment.getSku() != null) {
+                skus.add(adjustment.getSku());
+            } else {
+                continue;
+            }
+            if (adjustment.getLocationId() != null) {
+                locationIds.add(adjustment.getLocationId());
+            } else {
+                usesDefaultLocation = true;
+            }
+        }
+        Long defaultLocationId = usesDefaultLocation ? locationService.getDefaultLocation().getId() : null;
+        if (defaultLocationId != null) {
+            locationIds.add(defaultLocationId);
+        }
+        
+        // Rows addressed by product id or SKU are keyed together with their location id
+        Map<Long, InventoryStockRef> byId = new HashMap<>();
+        Map<List<Object>, InventoryStockRef> byProductId = new HashMap<>();
+        Map<List<Object>, InventoryStockRef> bySku = new HashMap<>();
+        if (!inventoryIds.isEmpty()) {
+            inventoryRepository.findStockRefsByIdIn(inventoryIds).forEach(ref -> byId.put(ref.getId(), ref));
+        }
+        if (!productIds.isEmpty()) {
+            inventoryRepository.findStockRefsByProductIdIn(productIds, locationIds)
+                    .forEach(ref -> byProductId.put(List.of(ref.getProductId(), ref.getLocationId()), ref));
+        }
+        if (!skus.isEmpty()) {
+            inventoryRepository.findStockRefsBySkuIn(skus, locationIds)
+                    .forEach(ref -> bySku.put(List.of(ref.getSku(), ref.getLocationId()), ref));
+        }
+        
+        List<StockAdjustmentResult> results = new ArrayList<>(adjustments.size());
+        Map<Long, Integer> runningLevels = new HashMap<>();
+        SortedMap<Long, Integer> netDeltas = new TreeMap<>();
+        
+        for (int line = 0; line < adjustments.size(); line++) {
+            StockAdjustmentRequest adjustment = adjustments.get(line);
+            Long locationId = adjustment.getLocationId() != null ? adjustment.getLocationId() : defaultLocationId;
+            InventoryStockRef ref;
+            if (adjustment.getInventoryId() != null) {
+                ref = byId.get(adjustment.getInventoryId());
+            } else if (adjustment.getProductId() != null) {
+                ref = byProductId.get(List.of(adjustment.getProductId(), locationId));
+            } else if (adjustment.getSku() != null) {
+                ref = bySku.get(List.of(adjustment.getSku(), locationId));
+            } else {
+                results.add(StockAdjustmentResult.rejected(line, null, "One of inventoryId, productId or sku is required"));
+                continue;
+            }
+            
+            if (ref == null) {
+                results.add(StockAdjustmentResult.rejected(line, adjustment.getInventoryId(), "Inventory not found"));
+                continue;
+            }
+            if (adjustment.getDelta() == null) {
+                results.add(StockAdjustmentResult.rejected(line, ref.getId(), "Delta is required"));
+                continue;
+            }
+            
+            int current = runningLevels.getOrDefault(ref.getId(), ref.getStockLevel());
+            int updated = current + adjustment.getDelta();
+            if (updated < 0) {
+                results.add(StockAdjustmentResult.rejected(line, ref.getId(),
+                        "Insufficient stock. Available: " + current + ", Requested: " + -adjustment.getDelta()));
+                continue;
+            }
+            
+            runningLevels.put(ref.getId(), updated);
+            netDeltas.merge(ref.getId(), adjustment.getDelta(), Integer::sum);
+            results.add(StockAdjustmentResult.applied(line, ref.getId(), updated));
+        }
+        
+        netDeltas.values().removeIf(delta -> delta == 0);
+        if (netDeltas.isEmpty()) {
+            return results;
+        }
+        
+        boolean[] updated = inventoryBatchRepository.applyStockDeltas(netDeltas, "batch adjustment");
+        int i = 0;
+        Set<Long> conflicted = new HashSet<>();
+        for (Map.Entry<Long, Integer> entry : netDeltas.entrySet()) {
+            invalidateWriteBehind(entry.getKey());
+            if (!updated[i++]) {
+                conflicted.add(entry.getKey());
+            }
+        }
+        
+        // Levels as the batch left them, read back while its UPDATEs still hold the row
+        // locks; the pre-read refs miss any change committed since they were loaded
+        Set<Long> applied = new HashSet<>(netDeltas.keySet());
+        applied.removeAll(conflicted);
+        if (!applied.isEmpty()) {
+            Map<Long, Integer> levels = new HashMap<>();
+            for (InventoryStockRef ref : inventoryRepository.findStockRefsByIdIn(applied)) {
+                int delta = netDeltas.get(ref.getId());
+                dashboardStatsService.inventoryChanged(ref.getStockLevel() - delta, ref.getReorderLevel(),
+                        ref.getStockLevel(), ref.getReorderLevel());
+                lowStockTracker.inventoryChanged(ref.getId(), ref.getStockLevel(), ref.getReorderLevel());
+                inventoryEventBus.inventoryChanged(ref, ref.getStockLevel());
+                levels.put(ref.getId(), ref.getStockLevel());
+            }
+            // Each applied line reports the read-back level less the deltas of the later
+            // lines on its row, walking back from the last line
+            for (int line = results.size() - 1; line >= 0; line--) {
+                StockAdjustmentResult result = results.get(line);
+                Integer level = result.isApplied() ? levels.get(result.getInventoryId()) : null;
+                if (level != null) {
+                    result.setStockLevel(level);
+                    levels.put(result.getInventoryId(), level - adjustments.get(line).getDelta());
+                }
+            }
+        }
+        
+        // Rows whose stock changed concurrently so that the net delta no longer fits
+        if (!conflicted.isEmpty()) {
+            for (int line = 0; line < results.size(); line++) {
+                StockAdjustmentResult result = results.get(line);
+                if (result.isApplied() && conflicted.contains(result.getInventoryId())) {
+                    results.set(line, StockAdjustmentResult.rejected(line, result.getInventoryId(),
+                            "Insufficient stock after concurrent update; adjustment not applied"));
+                }
+            }
+        }
+        return results;
     }
 }
-
@@ -0,0 +1,77 @@
+package com.apparels.management.service;
+
+import com.apparels.management.config.MetricsConfig;
+import com.apparels.management.entity.Location;
+import com.apparels.management.repository.LocationRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+// Stores and warehouses. A location referenced by name is created on first use, so
+// clients and imports that send a free-text location keep working; inventory sent
+// without a location is kept at the default location.
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class LocationService {
+    
+    private final LocationRepository locationRepository;
+    
+    @Value("${inventory.default-location:Main}")
+    private String defaultLocationName;
+    
+    @Transactional(readOnly = true)
+    public List<Location> getAllLocations(Long afterId, int limit) {
+        return locationRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<Location> getLocationById(Long id) {
+        return locationRepository.findById(id);
+    }
+    
+    public Location createLocation(Location location) {
+        if (location.getName() == null || location.getName().isBlank()) {
+            throw new IllegalArgumentException("Location name is required");
+        }
+        if (locationRepository.findByName(location.getName()).isPresent()) {
+            throw new IllegalArgumentException("Location with name '" + location.getName() + "' already exists");
+        }
+        return locationRepository.save(location);
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<Location> findDefaultLocation() {
+        return locationRepository.findByName(defaultLocationName);
+    }
+    
+    public Location getDefaultLocation() {
+        return getOrCreate(defaultLocationName);
+    }
+    
+    // Resolves a location given by id or by name; none resolves to the default location
+    public Location resolve(Location location) {
+        if (location == null || (location.getId() == null && (location.getName() == null || location.getName().isBlank()))) {
+            return getDefaultLocation();
+        }
+        if (location.getId() != null) {
+            return locationRepository.findById(location.getId())
+                    .orElseThrow(() -> new RuntimeException("Location not found with id: " + location.getId()));
+        }
+        return getOrCreate(location.getName().trim());
+    }
+    
+    // Created in the caller's transaction: of two concurrent first uses of the
+    // same name, one fails on the unique constraint and can be retried
+    public Location getOrCreate(String name) {
+        return locationRepository.findByName(name)
+                .orElseGet(() -> locationRepository.saveAndFlush(new Location(name)));
+    }
+}
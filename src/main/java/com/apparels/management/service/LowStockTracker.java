@@ -0,0 +1,205 @@
+package com.apparels.management.service;
+
+import com.apparels.management.config.ReplicaRoutingDataSource;
+import com.apparels.management.dto.InventoryStockRef;
+import com.apparels.management.dto.LowStockAlert;
+import com.apparels.management.repository.InventoryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// The current set of low stock inventory rows (stockLevel <= reorderLevel), kept
+// up to date by the stock write paths instead of scanning the inventory table.
+// Rows are indexed by id for keyset pages and by severity (units short of the
+// reorder level, largest first) for alerts. Every transition into or out of low
+// stock is published as a LowStockAlert application event. A periodic reload
+// corrects any drift (e.g. rows changed outside the application).
+@Slf4j
+@Service
+public class LowStockTracker {
+    
+    private static final Comparator<Entry> BY_SEVERITY = Comparator.comparingInt(Entry::shortfall).reversed()
+            .thenComparingLong(Entry::inventoryId);
+    
+    private final InventoryRepository inventoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    // Written under the tracker's lock, read without it
+    private final NavigableMap<Long, Entry> byId = new ConcurrentSkipListMap<>();
+    private final NavigableSet<Entry> bySeverity = new ConcurrentSkipListSet<>(BY_SEVERITY);
+    
+    // Latest state of rows changed while a reload query runs, which may be newer than its result
+    private Map<Long, Entry> changedDuringReload;
+    private volatile boolean ready;
+    
+    public LowStockTracker(InventoryRepository inventoryRepository, ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry) {
+        this.inventoryRepository = inventoryRepository;
+        this.eventPublisher = eventPublisher;
+        Gauge.builder("apparels.inventory.low.stock", byId, Map::size)
+                .description("Inventory rows at or below their reorder level")
+                .register(meterRegistry);
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public int size() {
+        return byId.size();
+    }
+    
+    // Ids of low stock rows after afterId in id order, at most limit
+    public List<Long> page(Long afterId, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, byId.size()));
+        for (Long id : byId.tailMap(afterId, false).keySet()) {
+            if (ids.size() == limit) {
+                break;
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+    
+    // Ids of the limit most severe low stock rows, most severe first
+    public List<Long> mostSevere(int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, byId.size()));
+        for (Entry entry : bySeverity) {
+            if (ids.size() == limit) {
+                break;
+            }
+            ids.add(entry.inventoryId());
+        }
+        return ids;
+    }
+    
+    // Records the stock state of a row after a write, once the write commits.
+    // Null levels mean the row was deleted.
+    public void inventoryChanged(Long inventoryId, Integer stockLevel, Integer reorderLevel) {
+        Entry entry = isLowStock(stockLevel, reorderLevel) ? new Entry(inventoryId, stockLevel, reorderLevel) : null;
+        TransactionCallbacks.afterCommit(() -> apply(inventoryId, entry, stockLevel, reorderLevel));
+    }
+    
+    public void inventoryDeleted(Long inventoryId) {
+        inventoryChanged(inventoryId, null, null);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${inventory.low-stock.reconcile-interval-ms:300000}",
+               fixedDelayString = "${inventory.low-stock.reconcile-interval-ms:300000}")
+    public void reload() {
+        synchronized (this) {
+            changedDuringReload = new HashMap<>();
+        }
+        List<InventoryStockRef> rows;
+        try {
+            rows = ReplicaRoutingDataSource.onPrimary(inventoryRepository::findLowStockRefs);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedDuringReload = null;
+            }
+            throw e;
+        }
+        
+        Map<Long, Entry> loaded = new HashMap<>(rows.size() * 2);
+        for (InventoryStockRef row : rows) {
+            loaded.put(row.getId(), new Entry(row.getId(), row.getStockLevel(), row.getReorderLevel()));
+        }
+        
+        int corrected = 0;
+        synchronized (this) {
+            Map<Long, Entry> changed = changedDuringReload;
+            changedDuringReload = null;
+            loaded.keySet().removeAll(changed.keySet());
+            
+            // Only the differences are applied, so readers never see a partially loaded set;
+            // they are published as transitions unless this is the initial load
+            for (Long id : new ArrayList<>(byId.keySet())) {
+                if (!loaded.containsKey(id) && !changed.containsKey(id)) {
+                    Entry previous = byId.remove(id);
+                    bySeverity.remove(previous);
+                    corrected++;
+                    if (ready) {
+                        publish(id, LowStockAlert.Transition.LEFT, null, null);
+                    }
+                }
+            }
+            for (Entry entry : loaded.values()) {
+                Entry previous = byId.put(entry.inventoryId(), entry);
+                if (previous != null) {
+                    bySeverity.remove(previous);
+                }
+                bySeverity.add(entry);
+                if (previous == null) {
+                    corrected++;
+                    if (ready) {
+                        publish(entry.inventoryId(), LowStockAlert.Transition.ENTERED, entry.stockLevel(), entry.reorderLevel());
+                    }
+                }
+            }
+        }
+        
+        if (ready && corrected > 0) {
+            log.debug("Reconciled {} low stock rows", corrected);
+        }
+        ready = true;
+    }
+    
+    private synchronized void apply(Long inventoryId, Entry entry, Integer stockLevel, Integer reorderLevel) {
+        if (changedDuringReload != null) {
+            changedDuringReload.put(inventoryId, entry);
+        }
+        
+        Entry previous = entry != null ? byId.put(inventoryId, entry) : byId.remove(inventoryId);
+        if (previous != null) {
+            bySeverity.remove(previous);
+        }
+        if (entry != null) {
+            bySeverity.add(entry);
+        }
+        
+        if (previous == null && entry != null) {
+            log.info("Inventory {} is low on stock: {} units, reorder level {}", inventoryId, stockLevel, reorderLevel);
+            publish(inventoryId, LowStockAlert.Transition.ENTERED, stockLevel, reorderLevel);
+        } else if (previous != null && entry == null) {
+            publish(inventoryId, LowStockAlert.Transition.LEFT, stockLevel, reorderLevel);
+        }
+    }
+    
+    private void publish(Long inventoryId, LowStockAlert.Transition transition, Integer stockLevel, Integer reorderLevel) {
+        try {
+            eventPublisher.publishEvent(new LowStockAlert(inventoryId, transition, stockLevel, reorderLevel, LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            // A failing subscriber must not fail the committed write that triggered the alert
+            log.warn("Low stock alert subscriber failed for inventory {}", inventoryId, e);
+        }
+    }
+    
+    // Mirrors InventoryRepository.findLowStockRefs (stockLevel <= reorderLevel)
+    private static boolean isLowStock(Integer stockLevel, Integer reorderLevel) {
+        return stockLevel != null && reorderLevel != null && stockLevel <= reorderLevel;
+    }
+    
+    private record Entry(long inventoryId, int stockLevel, int reorderLevel) {
+        
+        int shortfall() {
+            return reorderLevel - stockLevel;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.apparels.management.service;
+
+import com.apparels.management.config.MetricsConfig;
+import com.apparels.management.dto.ImportReport;
+import com.apparels.management.dto.ImportRowError;
+import com.apparels.management.dto.ProductImportRow;
+import com.apparels.management.repository.ProductBatchRepository;
+import com.apparels.management.search.ProductSearchIndexLoader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Streams a supplier catalogue from CSV or NDJSON into the database. Categories,
+// locations and existing SKUs are loaded once per job (new location names are
+// created on first use); accepted rows are written in
+// JDBC batches, one transaction per batch, so a bad row never costs more than
+// its own line and a failed batch only its own rows.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ProductImportService {
+    
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+    private static final int MAX_LOCATION_LENGTH = 200;
+    
+    private final ProductBatchRepository productBatchRepository;
+    private final LocationService locationService;
+    private final DashboardStatsService dashboardStatsService;
+    private final LowStockTracker lowStockTracker;
+    private final InventoryEventBus inventoryEventBus;
+    private final CatalogueVersions catalogueVersions;
+    private final ObjectProvider<ProductSearchIndexLoader> productSearchIndexLoader;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    
+    private final Map<String, Job> runningJobs = new ConcurrentHashMap<>();
+    
+    @Value("${catalogue.import.batch-size:1000}")
+    private int batchSize;
+    
+    @Value("${catalogue.import.max-errors:1000}")
+    private int maxErrors;
+    
+    public ImportReport importCsv(InputStream body) throws IOException {
+        Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8);
+        CsvRecordReader records = new CsvRecordReader(reader);
+        List<String> header = records.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV input is empty");
+        }
+        Map<String, Integer> columns = columns(header);
+        
+        return run(job -> {
+            List<String> fields;
+            while ((fields = records.next()) != null) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                long row = job.rowsRead.incrementAndGet();
+                try {
+                    job.accept(row, toRow(fields, columns));
+                } catch (IllegalArgumentException e) {
+                    job.reject(row, null, e.getMessage());
+                }
+            }
+        });
+    }
+    
+    public ImportReport importNdjson(InputStream body) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+        return run(job -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                long row = job.rowsRead.incrementAndGet();
+                try {
+                    job.accept(row, objectMapper.readValue(line, ProductImportRow.class));
+                } catch (JsonProcessingException e) {
+                    job.reject(row, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+        });
+    }
+    
+    public List<ImportReport> getRunningJobs() {
+        return runningJobs.values().stream().map(Job::report).toList();
+    }
+    
+    private ImportReport run(RowSource source) throws IOException {
+        Job job = new Job(productBatchRepository.findCategoryNames(), productBatchRepository.findLocationIds(),
+                productBatchRepository.findAllSkus());
+        runningJobs.put(job.id, job);
+        try {
+            source.read(job);
+            job.flush();
+            job.status = "COMPLETED";
+        } catch (IOException | RuntimeException e) {
+            job.status = "FAILED";
+            log.warn("Catalogue import {} failed after {} rows", job.id, job.rowsRead.get(), e);
+            throw e;
+        } finally {
+            runningJobs.remove(job.id);
+            if (job.imported.get() > 0) {
+                // The rows were inserted over JDBC, so Hibernate never invalidated its cached query results
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+                dashboardStatsService.reconcile();
+                lowStockTracker.reload();
+                inventoryEventBus.catalogueReloaded();
+                catalogueVersions.productsChanged();
+                productSearchIndexLoader.ifAvailable(ProductSearchIndexLoader::load);
+            }
+        }
+        
+        ImportReport report = job.report();
+        log.info("Catalogue import {} finished: {} rows read, {} imported, {} rejected in {} ms",
+                job.id, report.getRowsRead(), report.getImported(), report.getRejected(), report.getElapsedMs());
+        return report;
+    }
+    
+    // Maps header names case-insensitively, ignoring spaces and underscores (stock_level == stockLevel)
+    private static Map<String, Integer> columns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(name.equals("categoryname") ? "category" : name, i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price") || !columns.containsKey("sku")
+                || !(columns.containsKey("category") || columns.containsKey("categoryid"))) {
+            throw new IllegalArgumentException("CSV header must include name, price, sku and category or categoryId");
+        }
+        return columns;
+    }
+    
+    private static ProductImportRow toRow(List<String> fields, Map<String, Integer> columns) {
+        ProductImportRow row = new ProductImportRow();
+        row.setName(text(fields, columns, "name"));
+        row.setDescription(text(fields, columns, "description"));
+        row.setSku(text(fields, columns, "sku"));
+        row.setSize(text(fields, columns, "size"));
+        row.setColor(text(fields, columns, "color"));
+        row.setCategory(text(fields, columns, "category"));
+        row.setLocation(text(fields, columns, "location"));
+        try {
+            String price = text(fields, columns, "price");
+            row.setPrice(price != null ? new BigDecimal(price) : null);
+            String categoryId = text(fields, columns, "categoryid");
+            row.setCategoryId(categoryId != null ? Long.valueOf(categoryId) : null);
+            String stockLevel = text(fields, columns, "stocklevel");
+            row.setStockLevel(stockLevel != null ? Integer.valueOf(stockLevel) : null);
+            String reorderLevel = text(fields, columns, "reorderlevel");
+            row.setReorderLevel(reorderLevel != null ? Integer.valueOf(reorderLevel) : null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + e.getMessage());
+        }
+        return row;
+    }
+    
+    private static String text(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    private static boolean tooLong(String value, int maxLength) {
+        return value != null && value.length() > maxLength;
+    }
+    
+    @FunctionalInterface
+    private interface RowSource {
+        void read(Job job) throws IOException;
+    }
+    
+    private final class Job {
+        
+        final String id = UUID.randomUUID().toString();
+        final long startedAt = System.currentTimeMillis();
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong imported = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final List<ImportRowError> errors = new ArrayList<>();
+        volatile String status = "RUNNING";
+        
+        final Map<Long, String> categoryNames;
+        final Map<String, Long> categoryIds = new HashMap<>();
+        final Map<String, Long> locationIds;
+        Long defaultLocationId;
+        final Set<String> skus;
+        final List<ProductImportRow> batch = new ArrayList<>();
+        final List<Long> batchRows = new ArrayList<>();
+        
+        Job(Map<Long, String> categoryNames, Map<String, Long> locationIds, Set<String> skus) {
+            this.categoryNames = categoryNames;
+            this.locationIds = locationIds;
+            this.skus = skus;
+            categoryNames.forEach((categoryId, name) -> categoryIds.put(name.toLowerCase(Locale.ROOT), categoryId));
+        }
+        
+        void accept(long row, ProductImportRow product) {
+            String error = validate(product);
+            if (error != null) {
+                reject(row, product.getSku(), error);
+                return;
+            }
+            skus.add(product.getSku());
+            batch.add(product);
+            batchRows.add(row);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+        
+        // Resolves the category and location in place; returns the reason the row cannot be imported, if any
+        String validate(ProductImportRow product) {
+            if (product.getName() == null || product.getName().isBlank()) {
+                return "Name is required";
+            }
+            if (product.getPrice() == null) {
+                return "Price is required";
+            }
+            if (product.getPrice().signum() < 0) {
+                return "Price must not be negative";
+            }
+            if (product.getSku() == null || product.getSku().isBlank()) {
+                return "SKU is required";
+            }
+            if (tooLong(product.getName(), MAX_TEXT_LENGTH) || tooLong(product.getSku(), MAX_TEXT_LENGTH)
+                    || tooLong(product.getSize(), MAX_TEXT_LENGTH) || tooLong(product.getColor(), MAX_TEXT_LENGTH)
+                    || tooLong(product.getDescription(), MAX_DESCRIPTION_LENGTH)
+                    || tooLong(product.getLocation(), MAX_LOCATION_LENGTH)) {
+                return "Field value too long";
+            }
+            if (product.getStockLevel() != null && product.getStockLevel() < 0) {
+                return "Stock level must not be negative";
+            }
+            if (product.getCategoryId() != null) {
+                if (!categoryNames.containsKey(product.getCategoryId())) {
+                    return "Category not found with id: " + product.getCategoryId();
+                }
+            } else if (product.getCategory() != null) {
+                Long categoryId = categoryIds.get(product.getCategory().toLowerCase(Locale.ROOT));
+                if (categoryId == null) {
+                    return "Category not found: " + product.getCategory();
+                }
+                product.setCategoryId(categoryId);
+            } else {
+                return "Category is required for product";
+            }
+            if (skus.contains(product.getSku())) {
+                return "Product with SKU '" + product.getSku() + "' already exists";
+            }
+            if (product.getStockLevel() != null) {
+                if (product.getLocationId() != null) {
+                    if (!locationIds.containsValue(product.getLocationId())) {
+                        return "Location not found with id: " + product.getLocationId();
+                    }
+                } else if (product.getLocation() != null && !product.getLocation().isBlank()) {
+                    product.setLocationId(locationIds.computeIfAbsent(product.getLocation().trim(),
+                            name -> locationService.getOrCreate(name).getId()));
+                } else {
+                    if (defaultLocationId == null) {
+                        defaultLocationId = locationService.getDefaultLocation().getId();
+                    }
+                    product.setLocationId(defaultLocationId);
+                }
+            }
+            return null;
+        }
+        
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> productBatchRepository.insertProducts(batch));
+                imported.addAndGet(batch.size());
+            } catch (DataAccessException e) {
+                String message = "Batch insert failed: " + e.getMostSpecificCause().getMessage();
+                for (int i = 0; i < batch.size(); i++) {
+                    skus.remove(batch.get(i).getSku());
+                    reject(batchRows.get(i), batch.get(i).getSku(), message);
+                }
+            }
+            batch.clear();
+            batchRows.clear();
+            log.debug("Catalogue import {}: {} rows read, {} imported", id, rowsRead.get(), imported.get());
+        }
+        
+        void reject(long row, String sku, String message) {
+            rejected.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new ImportRowError(row, sku, message));
+                }
+            }
+        }
+        
+        ImportReport report() {
+            List<ImportRowError> reported;
+            synchronized (errors) {
+                reported = List.copyOf(errors);
+            }
+            return new ImportReport(id, status, rowsRead.get(), imported.get(), rejected.get(), reported,
+                    rejected.get() > reported.size(), System.currentTimeMillis() - startedAt);
+        }
+    }
+}
@@ -1,36 +1,73 @@
 package com.apparels.management.service;
 
+import com.apparels.management.config.CacheConfig;
+import com.apparels.management.config.MetricsConfig;
+import com.apparels.management.dto.ProductFacets;
+import com.apparels.management.dto.ProductSummary;
+import com.apparels.management.entity.Inventory;
 import com.apparels.management.entity.Product;
 import com.apparels.management.repository.CategoryRepository;
 import com.apparels.management.repository.ProductRepository;
+import com.apparels.management.repository.ProductSpecifications;
+import com.apparels.management.search.ProductSearchIndex;
+import com.apparels.management.search.ProductSort;
+import com.apparels.management.search.SearchIndexNotReadyException;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ProductService {
     
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final DashboardStatsService dashboardStatsService;
+    private final LowStockTracker lowStockTracker;
+    private final InventoryEventBus inventoryEventBus;
+    private final CatalogueVersions catalogueVersions;
+    private final ProductSearchIndex productSearchIndex;
     
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    @Value("${search.facets.price-buckets:25,50,100,200}")
+    private BigDecimal[] priceBucketBounds;
+    
+    @Transactional(readOnly = true)
+    public List<ProductSummary> getAllProducts(Long afterId, int limit) {
+        return productRepository.findSummaries(afterId, PageRequest.ofSize(limit));
     }
     
+    // Cached reads are not read-only and so stay on the primary: after an update has
+    // evicted a product, a lagging read replica could put the old row back in the cache
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id", unless = "#result == null")
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
     
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_SKU, key = "#sku", unless = "#result == null")
     public Optional<Product> getProductBySku(String sku) {
         return productRepository.findBySku(sku);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.RESPONSES, allEntries = true)
     public Product createProduct(Product product) {
         // Validate category exists
         if (product.getCategory() != null && product.getCategory().getId() != null) {
@@ -47,9 +84,19 @@ public class ProductService {
             }
         }
         
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        dashboardStatsService.productCreated();
+        productSearchIndex.onProductSaved(saved);
+        inventoryEventBus.productSaved(saved);
+        catalogueVersions.productsChanged();
+        return saved;
     }
     
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS_BY_SKU, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.RESPONSES, allEntries = true)
+    })
     public Product updateProduct(Long id, Product productDetails) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
@@ -78,44 +125,141 @@ public class ProductService {
             product.setCategory(productDetails.getCategory());
         }
         
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productSearchIndex.onProductSaved(saved);
+        inventoryEventBus.productSaved(saved);
+        catalogueVersions.productsChanged();
+        return saved;
     }
     
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS_BY_SKU, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.RESPONSES, allEntries = true)
+    })
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new RuntimeException("Product not found with id: " + id);
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        
+        // Inventory at every location is removed with the product through the cascade
+        for (Inventory inventory : product.getInventory()) {
+            dashboardStatsService.inventoryDeleted(inventory);
+            lowStockTracker.inventoryDeleted(inventory.getId());
+            inventoryEventBus.inventoryDeleted(inventory.getId(), id);
         }
-        productRepository.deleteById(id);
+        productRepository.delete(product);
+        dashboardStatsService.productDeleted();
+        productSearchIndex.onProductDeleted(id);
+        inventoryEventBus.productDeleted(id);
+        catalogueVersions.productsChanged();
+    }
+    
+    // Search and filter methods (keyset paginated: rows after afterId, at most limit)
+    @Transactional(readOnly = true)
+    public List<ProductSummary> searchProductsByName(String name, Long afterId, int limit) {
+        return productRepository.findSummariesByNameContaining(name, afterId, PageRequest.ofSize(limit));
     }
     
-    // Search and filter methods
-    public List<Product> searchProductsByName(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name);
+    @Transactional(readOnly = true)
+    public List<ProductSummary> getProductsByCategory(Long categoryId, Long afterId, int limit) {
+        return productRepository.findSummariesByCategoryId(categoryId, afterId, PageRequest.ofSize(limit));
     }
     
-    public List<Product> getProductsByCategory(Long categoryId) {
-        return productRepository.findByCategoryId(categoryId);
+    @Transactional(readOnly = true)
+    public List<ProductSummary> getProductsByCategoryName(String categoryName, Long afterId, int limit) {
+        return productRepository.findSummariesByCategoryName(categoryName, afterId, PageRequest.ofSize(limit));
     }
     
-    public List<Product> getProductsByCategoryName(String categoryName) {
-        return productRepository.findByCategoryName(categoryName);
+    @Transactional(readOnly = true)
+    public List<ProductSummary> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Long afterId, int limit) {
+        return productRepository.findSummariesByPriceBetween(minPrice, maxPrice, afterId, PageRequest.ofSize(limit));
     }
     
-    public List<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return productRepository.findByPriceBetween(minPrice, maxPrice);
+    @Transactional(readOnly = true)
+    public List<ProductSummary> getProductsBySize(String size, Long afterId, int limit) {
+        return productRepository.findSummariesBySize(size, afterId, PageRequest.ofSize(limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ProductSummary> getProductsByColor(String color, Long afterId, int limit) {
+        return productRepository.findSummariesByColor(color, afterId, PageRequest.ofSize(limit));
+    }
+    
+    // Served from the in-memory search index once it is built; the matching
+    // ids are then loaded by primary key in one JOIN query. Until then the database is queried
+    // with only the given filters. Free text search (text) is only available through the index.
+    @Transactional(readOnly = true)
+    public List<ProductSummary> searchProducts(String name, String text, Long categoryId, BigDecimal minPrice, 
+                                       BigDecimal maxPrice, String size, String color,
+                                       Long afterId, int limit) {
+        if (!productSearchIndex.isReady()) {
+            if (text != null && !text.isBlank()) {
+                throw new SearchIndexNotReadyException("Free text search is not available until the search index is built");
+            }
+            Specification<Product> filter = ProductSpecifications.search(name, categoryId, minPrice, maxPrice, size, color);
+            return productRepository.searchSummaries(filter.and(ProductSpecifications.idAfter(afterId)),
+                    Sort.by("id"), limit);
+        }
+        
+        // Products deleted between the index lookup and the load are topped up from further
+        // index pages, so a short page still means the last page and the next cursor is kept
+        List<ProductSummary> rows = new ArrayList<>(limit);
+        Long after = afterId;
+        while (rows.size() < limit) {
+            int wanted = limit - rows.size();
+            List<Long> ids = productSearchIndex.search(name, text, categoryId, minPrice, maxPrice, size, color, after, wanted);
+            if (ids.isEmpty()) {
+                break;
+            }
+            rows.addAll(productRepository.findSummariesByIdIn(ids));
+            if (ids.size() < wanted) {
+                break;
+            }
+            after = ids.get(ids.size() - 1);
+        }
+        return rows;
     }
     
-    public List<Product> getProductsBySize(String size) {
-        return productRepository.findBySize(size);
+    // The first limit products in the given order, e.g. the cheapest of a category or the
+    // newest arrivals; there are no further pages. Served from the index's sorted slot
+    // orders once it is built, from the database until then.
+    @Transactional(readOnly = true)
+    public List<ProductSummary> getTopProducts(String name, String text, Long categoryId, BigDecimal minPrice,
+                                               BigDecimal maxPrice, String size, String color,
+                                               ProductSort sort, int limit) {
+        if (!productSearchIndex.isReady()) {
+            if (text != null && !text.isBlank()) {
+                throw new SearchIndexNotReadyException("Free text search is not available until the search index is built");
+            }
+            return productRepository.searchSummaries(
+                    ProductSpecifications.search(name, categoryId, minPrice, maxPrice, size, color),
+                    sort.toSort(), limit);
+        }
+        
+        List<Long> ids = productSearchIndex.top(name, text, categoryId, minPrice, maxPrice, size, color, sort, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Loaded in id order; put back into the index's order, skipping products deleted meanwhile
+        Map<Long, ProductSummary> byId = productRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductSummary::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
     }
     
-    public List<Product> getProductsByColor(String color) {
-        return productRepository.findByColor(color);
+    @Transactional(readOnly = true)
+    public List<ProductSummary> getTopProductsByCategoryName(String categoryName, ProductSort sort, int limit) {
+        return categoryRepository.findByName(categoryName)
+                .map(category -> getTopProducts(null, null, category.getId(), null, null, null, null, sort, limit))
+                .orElse(List.of());
     }
     
-    public List<Product> searchProducts(String name, Long categoryId, BigDecimal minPrice, 
-                                       BigDecimal maxPrice, String size, String color) {
-        return productRepository.searchProducts(name, categoryId, minPrice, maxPrice, size, color);
+    // Facet counts for the same filters as searchProducts, computed from the index bitmaps
+    @Transactional(readOnly = true)
+    public ProductFacets getFacets(String name, String text, Long categoryId, BigDecimal minPrice,
+                                   BigDecimal maxPrice, String size, String color) {
+        if (!productSearchIndex.isReady()) {
+            throw new SearchIndexNotReadyException("Facet counts are not available until the search index is built");
+        }
+        return productSearchIndex.facets(name, text, categoryId, minPrice, maxPrice, size, color, priceBucketBounds);
     }
 }
-
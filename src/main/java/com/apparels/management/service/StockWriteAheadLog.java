@@ -0,0 +1,142 @@
+package com.apparels.management.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Segmented append-only file of "inventoryId,delta" lines. Appends are cheap;
+// sync() forces the file to disk and is shared between concurrent callers, so
+// a burst of writers pays for one fsync (group commit). A segment is closed by
+// rotate() and deleted once its deltas are in the database.
+//
+// Segment names carry the start time and a random id of the run that wrote them,
+// so they are never reused: a name is journaled as the reference of the flush
+// that applied the segment, and an emptied directory (a new container, a
+// cleaned data volume) must not make a new segment look already applied.
+final class StockWriteAheadLog implements Closeable {
+    
+    private static final String PREFIX = "stock-wal-";
+    private static final String SUFFIX = ".log";
+    
+    private final Path directory;
+    private final boolean fsync;
+    private final Object syncLock = new Object();
+    private final String run = String.format("%020d-%s-", System.currentTimeMillis(), UUID.randomUUID());
+    
+    private long segment;
+    private FileChannel channel;
+    private long appended;
+    private long synced;
+    
+    StockWriteAheadLog(Path directory, boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.fsync = fsync;
+        open(1);
+    }
+    
+    // Segments left by previous runs, oldest first, excluding the current one
+    List<Path> pendingSegments() throws IOException {
+        Path current = path(segment);
+        return segments().stream().filter(path -> !path.equals(current)).toList();
+    }
+    
+    // Returns the log position to pass to sync() before acknowledging the change
+    synchronized long append(long inventoryId, int delta) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap((inventoryId + "," + delta + "\n").getBytes(StandardCharsets.US_ASCII));
+        while (line.hasRemaining()) {
+            channel.write(line);
+        }
+        appended += line.limit();
+        return appended;
+    }
+    
+    void sync(long position) throws IOException {
+        if (!fsync) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            FileChannel current;
+            long target;
+            synchronized (this) {
+                current = channel;
+                target = appended;
+            }
+            current.force(false);
+            synced = target;
+        }
+    }
+    
+    // Closes the current segment and starts a new one; returns the closed segment
+    Path rotate() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                Path closed = path(segment);
+                if (fsync) {
+                    channel.force(false);
+                }
+                channel.close();
+                synced = appended;
+                open(segment + 1);
+                return closed;
+            }
+        }
+    }
+    
+    void delete(Path closedSegment) throws IOException {
+        Files.deleteIfExists(closedSegment);
+    }
+    
+    // Net delta per inventory id in a segment. Only newline-terminated lines count:
+    // a torn last line from a crash mid-write was never acknowledged.
+    static SortedMap<Long, Integer> read(Path segmentPath) throws IOException {
+        String content = Files.readString(segmentPath, StandardCharsets.US_ASCII);
+        SortedMap<Long, Integer> deltas = new TreeMap<>();
+        int start = 0;
+        int end;
+        while ((end = content.indexOf('\n', start)) >= 0) {
+            String line = content.substring(start, end);
+            start = end + 1;
+            int comma = line.indexOf(',');
+            if (comma > 0) {
+                deltas.merge(Long.parseLong(line.substring(0, comma)), Integer.parseInt(line.substring(comma + 1)), Integer::sum);
+            }
+        }
+        return deltas;
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+    
+    private void open(long next) throws IOException {
+        segment = next;
+        channel = FileChannel.open(path(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+    
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(PREFIX)
+                            && path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+    
+    private Path path(long sequence) {
+        return directory.resolve(String.format("%s%s%020d%s", PREFIX, run, sequence, SUFFIX));
+    }
+}
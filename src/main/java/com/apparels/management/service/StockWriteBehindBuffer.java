@@ -0,0 +1,372 @@
+package com.apparels.management.service;
+
+import com.apparels.management.config.ReplicaRoutingDataSource;
+import com.apparels.management.entity.Inventory;
+import com.apparels.management.entity.StockRejection;
+import com.apparels.management.repository.InventoryBatchRepository;
+import com.apparels.management.repository.InventoryMovementRepository;
+import com.apparels.management.repository.InventoryRepository;
+import com.apparels.management.repository.StockRejectionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntUnaryOperator;
+
+// Write-behind mode for add-stock/remove-stock (inventory.write-behind.enabled).
+// In-memory counters, locked in stripes by inventory id, are authoritative:
+// a change is checked against them, appended to the write-ahead log, fsynced
+// and only then acknowledged. Deltas are coalesced per row and written to the
+// database every flush-interval-ms or flush-threshold operations.
+//
+// Each flush is journaled under the name of its log segment, so on restart a
+// segment whose movements are already in the database is discarded instead of
+// applied twice. The counters assume this is the only application instance
+// changing stock through these endpoints.
+//
+// Relative writes by other paths (transfers, batch adjustments) commute with the
+// buffered deltas, so the row is only re-read. Absolute stock levels are set
+// through set(), which turns them into a delta against the counter: deltas
+// acknowledged before the write are overridden rather than re-applied on top.
+// A delta the database rejects at flush (row deleted, or lowered by another path
+// below what the delta needs) is kept in stock_rejections and counted in
+// apparels.inventory.write-behind.rejected.
+//
+// Lock order: flushLock -> appendLock -> stripe. Operations take only
+// appendLock (read) and a stripe; loading a row's baseline takes flushLock
+// without holding anything else.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.write-behind.enabled", havingValue = "true")
+public class StockWriteBehindBuffer {
+    
+    private static final int STRIPES = 64;
+    private static final String REFERENCE_PREFIX = "write-behind ";
+    
+    private final InventoryRepository inventoryRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final StockRejectionRepository stockRejectionRepository;
+    private final DashboardStatsService dashboardStatsService;
+    private final LowStockTracker lowStockTracker;
+    private final InventoryEventBus inventoryEventBus;
+    private final TransactionTemplate transactionTemplate;
+    private final StockWriteAheadLog writeAheadLog;
+    private final int flushThreshold;
+    private final io.micrometer.core.instrument.Counter rejected;
+    
+    private final Object[] stripes = new Object[STRIPES];
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock appendLock = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicInteger operationsSinceFlush = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    // Closed segments whose deltas are not yet in the database, oldest first; guarded by flushLock
+    private final Deque<Segment> unflushed = new ArrayDeque<>();
+    
+    public StockWriteBehindBuffer(InventoryRepository inventoryRepository,
+                                  InventoryBatchRepository inventoryBatchRepository,
+                                  InventoryMovementRepository inventoryMovementRepository,
+                                  StockRejectionRepository stockRejectionRepository,
+                                  DashboardStatsService dashboardStatsService,
+                                  LowStockTracker lowStockTracker,
+                                  InventoryEventBus inventoryEventBus,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${inventory.write-behind.wal-directory:./data/stock-wal}") Path walDirectory,
+                                  @Value("${inventory.write-behind.fsync:true}") boolean fsync,
+                                  @Value("${inventory.write-behind.flush-threshold:1000}") int flushThreshold) throws IOException {
+        this.inventoryRepository = inventoryRepository;
+        this.inventoryBatchRepository = inventoryBatchRepository;
+        this.inventoryMovementRepository = inventoryMovementRepository;
+        this.stockRejectionRepository = stockRejectionRepository;
+        this.dashboardStatsService = dashboardStatsService;
+        this.lowStockTracker = lowStockTracker;
+        this.inventoryEventBus = inventoryEventBus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.flushThreshold = flushThreshold;
+        this.rejected = io.micrometer.core.instrument.Counter.builder("apparels.inventory.write-behind.rejected")
+                .description("Acknowledged write-behind stock changes the database rejected")
+                .register(meterRegistry);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        this.writeAheadLog = new StockWriteAheadLog(walDirectory, fsync);
+        recover();
+    }
+    
+    public Inventory add(Long inventoryId, int quantity) {
+        return apply(inventoryId, available -> quantity);
+    }
+    
+    public Inventory remove(Long inventoryId, int quantity) {
+        return apply(inventoryId, available -> -quantity);
+    }
+    
+    // Sets the level as of now: logged as the difference to the counter, so it
+    // replaces the buffered deltas instead of having them applied on top
+    public Inventory set(Long inventoryId, int stockLevel) {
+        return apply(inventoryId, available -> stockLevel - available);
+    }
+    
+    // Forces the row's baseline to be re-read after another path changed it by a
+    // relative amount; the buffered deltas still apply on top of the new level
+    public void invalidate(Long inventoryId) {
+        Counter counter = counters.get(inventoryId);
+        if (counter != null) {
+            synchronized (stripe(inventoryId)) {
+                counter.loaded = false;
+            }
+        }
+    }
+    
+    private Inventory apply(Long inventoryId, IntUnaryOperator deltaFor) {
+        while (true) {
+            load(inventoryId);
+            long position;
+            Inventory view;
+            int before;
+            int delta;
+            appendLock.readLock().lock();
+            try {
+                synchronized (stripe(inventoryId)) {
+                    Counter counter = counters.get(inventoryId);
+                    if (counter == null || !counter.loaded) {
+                        continue;
+                    }
+                    before = counter.available();
+                    delta = deltaFor.applyAsInt(before);
+                    if (delta == 0) {
+                        return counter.view();
+                    }
+                    if (before + delta < 0) {
+                        throw new IllegalStateException("Insufficient stock. Available: " + before + ", Requested: " + -delta);
+                    }
+                    position = writeAheadLog.append(inventoryId, delta);
+                    counter.pending += delta;
+                    view = counter.view();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write stock change to the write-ahead log", e);
+            } finally {
+                appendLock.readLock().unlock();
+            }
+            
+            try {
+                writeAheadLog.sync(position);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not sync the write-ahead log", e);
+            }
+            dashboardStatsService.inventoryChanged(before, view.getReorderLevel(), view.getStockLevel(), view.getReorderLevel());
+            lowStockTracker.inventoryChanged(inventoryId, view.getStockLevel(), view.getReorderLevel());
+            inventoryEventBus.inventoryChanged(view);
+            if (operationsSinceFlush.incrementAndGet() >= flushThreshold) {
+                requestFlush();
+            }
+            return view;
+        }
+    }
+    
+    // Reads the row under flushLock, so the baseline and the in-flight deltas of a
+    // concurrent flush are never both counted or both missed
+    private void load(Long inventoryId) {
+        Counter existing = counters.get(inventoryId);
+        if (existing != null && existing.loaded) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Inventory inventory = ReplicaRoutingDataSource.onPrimary(() -> inventoryRepository.findById(inventoryId))
+                    .orElseThrow(() -> new RuntimeException("Inventory not found with id: " + inventoryId));
+            synchronized (stripe(inventoryId)) {
+                Counter counter = counters.computeIfAbsent(inventoryId, id -> new Counter());
+                counter.template = inventory;
+                counter.baseline = inventory.getStockLevel();
+                counter.loaded = true;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${inventory.write-behind.flush-interval-ms:200}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            drain();
+            while (!unflushed.isEmpty()) {
+                Segment segment = unflushed.peekFirst();
+                boolean[] applied = transactionTemplate.execute(status ->
+                        write(segment.deltas, reference(segment.path)));
+                settle(segment, applied);
+                unflushed.removeFirst();
+                writeAheadLog.delete(segment.path);
+            }
+        } catch (IOException | RuntimeException e) {
+            // The segment stays queued and its deltas in flight; the next flush retries it
+            log.warn("Write-behind flush failed; {} segment(s) pending", unflushed.size(), e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    // Moves pending deltas to in-flight and closes the log segment that holds them
+    private void drain() throws IOException {
+        SortedMap<Long, Integer> deltas = new TreeMap<>();
+        appendLock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+                synchronized (stripe(entry.getKey())) {
+                    Counter counter = entry.getValue();
+                    if (counter.pending != 0) {
+                        deltas.put(entry.getKey(), counter.pending);
+                        counter.inFlight += counter.pending;
+                        counter.pending = 0;
+                    }
+                }
+            }
+            if (deltas.isEmpty()) {
+                return;
+            }
+            unflushed.addLast(new Segment(writeAheadLog.rotate(), deltas));
+            operationsSinceFlush.set(0);
+        } finally {
+            appendLock.writeLock().unlock();
+        }
+    }
+    
+    // Applies the deltas and, in the same transaction, dead-letters the ones the database rejected
+    private boolean[] write(SortedMap<Long, Integer> deltas, String reference) {
+        boolean[] applied = inventoryBatchRepository.applyStockDeltas(deltas, reference);
+        LocalDateTime now = LocalDateTime.now();
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+            if (!applied[i++]) {
+                stockRejectionRepository.save(new StockRejection(null, entry.getKey(), entry.getValue(), reference, now));
+            }
+        }
+        return applied;
+    }
+    
+    private void settle(Segment segment, boolean[] applied) {
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : segment.deltas.entrySet()) {
+            Counter counter = counters.get(entry.getKey());
+            boolean written = applied[i++];
+            if (!written) {
+                rejected.increment();
+                log.error("Write-behind delta {} for inventory {} could not be applied; recorded in stock_rejections",
+                        entry.getValue(), entry.getKey());
+            }
+            if (counter == null) {
+                continue;
+            }
+            synchronized (stripe(entry.getKey())) {
+                counter.inFlight -= entry.getValue();
+                if (written) {
+                    counter.baseline += entry.getValue();
+                } else {
+                    counter.loaded = false;
+                }
+            }
+        }
+    }
+    
+    // Applies segments left by a previous run, skipping those already written: a flush
+    // journals its applied deltas and dead-letters the rest under the segment's reference
+    private void recover() throws IOException {
+        for (Path path : writeAheadLog.pendingSegments()) {
+            String reference = reference(path);
+            if (!inventoryMovementRepository.existsByReference(reference)
+                    && !stockRejectionRepository.existsByReference(reference)) {
+                SortedMap<Long, Integer> deltas = StockWriteAheadLog.read(path);
+                if (!deltas.isEmpty()) {
+                    boolean[] applied = transactionTemplate.execute(status -> write(deltas, reference));
+                    for (boolean written : applied) {
+                        if (!written) {
+                            rejected.increment();
+                        }
+                    }
+                    log.info("Recovered {} stock deltas from {}", deltas.size(), path.getFileName());
+                }
+            }
+            writeAheadLog.delete(path);
+        }
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        flusher.shutdown();
+        flush();
+        writeAheadLog.close();
+    }
+    
+    private Object stripe(Long inventoryId) {
+        return stripes[Math.floorMod(inventoryId.hashCode(), STRIPES)];
+    }
+    
+    static String reference(Path segment) {
+        return REFERENCE_PREFIX + segment.getFileName();
+    }
+    
+    private record Segment(Path path, SortedMap<Long, Integer> deltas) {
+    }
+    
+    // Guarded by the row's stripe
+    private static final class Counter {
+        
+        Inventory template;
+        int baseline;
+        int inFlight;
+        int pending;
+        boolean loaded;
+        
+        int available() {
+            return baseline + inFlight + pending;
+        }
+        
+        Inventory view() {
+            return new Inventory(template.getId(), template.getProduct(), available(), template.getLocation(),
+                    template.getReorderLevel(), LocalDateTime.now());
+        }
+    }
+}
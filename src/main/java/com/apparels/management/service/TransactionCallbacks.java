@@ -0,0 +1,25 @@
+package com.apparels.management.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Defers in-memory side effects of a write until its transaction commits,
+// so a rolled back transaction never leaves derived state out of step with the database.
+public final class TransactionCallbacks {
+    
+    private TransactionCallbacks() {
+    }
+    
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
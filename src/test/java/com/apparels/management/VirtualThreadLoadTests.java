@@ -0,0 +1,121 @@
+package com.apparels.management;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Compares platform-thread and virtual-thread request execution under a burst
+// of concurrent requests. Opt in with -Dloadtest=true; point it at a real
+// database with e.g. -Dspring.datasource.url=... to see the pool effects.
+// Every request must succeed, and virtual threads must reach at least
+// loadtest.min-throughput-ratio of the platform-thread throughput.
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class VirtualThreadLoadTests {
+    
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 400);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("loadtest.requests", 25);
+    private static final String PATH = System.getProperty("loadtest.path", "/api/inventory/low-stock");
+    private static final double MIN_THROUGHPUT_RATIO =
+            Double.parseDouble(System.getProperty("loadtest.min-throughput-ratio", "0.9"));
+    
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadLoadTests.class);
+    
+    @Test
+    void compareThreadingModes() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+        
+        log.info("platform threads: {}", platform);
+        log.info("virtual threads:  {}", virtual);
+        
+        assertEquals(0, platform.errors);
+        assertEquals(0, virtual.errors);
+        assertEquals(CLIENTS * REQUESTS_PER_CLIENT, platform.requests);
+        assertEquals(CLIENTS * REQUESTS_PER_CLIENT, virtual.requests);
+        assertTrue(virtual.requestsPerSecond >= platform.requestsPerSecond * MIN_THROUGHPUT_RATIO,
+                () -> "virtual threads (" + virtual + ") fell below " + MIN_THROUGHPUT_RATIO
+                        + " of platform threads (" + platform + ")");
+    }
+    
+    private Result run(boolean virtualThreads) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ApparelsManagementApplication.class)
+                .profiles("dev")
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.datasource.hikari.maximum-pool-size=5",
+                        "spring.threads.virtual.enabled=" + virtualThreads)
+                .run();
+        try {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            return load(URI.create("http://localhost:" + port + PATH));
+        } finally {
+            context.close();
+        }
+    }
+    
+    private Result load(URI uri) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<Integer>> errors = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            errors.add(clients.submit(() -> {
+                int failed = 0;
+                for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                    long sent = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    latencies.add(System.nanoTime() - sent);
+                    if (response.statusCode() != 200) {
+                        failed++;
+                    }
+                }
+                return failed;
+            }));
+        }
+        int errorCount = 0;
+        for (Future<Integer> future : errors) {
+            errorCount += future.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        clients.shutdown();
+        
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return new Result(sorted.size(), sorted.size() / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99), errorCount);
+    }
+    
+    private static double percentile(List<Long> sorted, double p) {
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.round(p * (sorted.size() - 1)))) / 1_000_000.0;
+    }
+    
+    private record Result(int requests, double requestsPerSecond, double p50Millis, double p99Millis, int errors) {
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p50 %.1f ms, p99 %.1f ms, %d errors",
+                    requestsPerSecond, p50Millis, p99Millis, errors);
+        }
+    }
+}
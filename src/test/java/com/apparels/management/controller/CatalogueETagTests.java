@@ -0,0 +1,81 @@
+package com.apparels.management.controller;
+
+import com.apparels.management.entity.Category;
+import com.apparels.management.service.CategoryService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:etag",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+class CatalogueETagTests {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Test
+    void conditionalGetIsAnsweredWithoutQueryingUntilAWrite() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        createCategory("Knitwear");
+        
+        String productsETag = mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(productsETag);
+        String etag = mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        statistics.clear();
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        // The tag is weak, as gzip and plain bodies share it; If-None-Match compares weakly
+        assertTrue(etag.startsWith("W/\""));
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, etag.substring(2)))
+                .andExpect(status().isNotModified());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        
+        createCategory("Outerwear");
+        String updated = mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, updated);
+        
+        // Products embed their category, so a category write changes their ETag too
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, productsETag))
+                .andExpect(status().isOk());
+    }
+    
+    private void createCategory(String name) {
+        Category category = new Category();
+        category.setName(name);
+        categoryService.createCategory(category);
+    }
+}
@@ -0,0 +1,119 @@
+package com.apparels.management.controller;
+
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Inventory;
+import com.apparels.management.entity.Location;
+import com.apparels.management.entity.Product;
+import com.apparels.management.repository.CategoryRepository;
+import com.apparels.management.repository.InventoryRepository;
+import com.apparels.management.repository.LocationRepository;
+import com.apparels.management.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+class ExportControllerTests {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    
+    @Autowired
+    private LocationRepository locationRepository;
+    
+    @BeforeEach
+    void seed() {
+        if (productRepository.count() > 0) {
+            return;
+        }
+        Category category = new Category();
+        category.setName("Export");
+        category = categoryRepository.save(category);
+        Location location = locationRepository.save(new Location("Export"));
+        for (int i = 0; i < 3; i++) {
+            Product product = new Product();
+            product.setName(i == 0 ? "Shirt, \"linen\"" : "Product " + i);
+            product.setSku("EXP-" + i);
+            product.setPrice(new BigDecimal("12.50"));
+            product.setCategory(category);
+            product = productRepository.save(product);
+            
+            Inventory inventory = new Inventory();
+            inventory.setProduct(product);
+            inventory.setStockLevel(i * 10);
+            inventory.setLocation(location);
+            inventoryRepository.save(inventory);
+        }
+    }
+    
+    @Test
+    void productsExportAsCsv() throws Exception {
+        String csv = new String(export(get("/api/export/products")), StandardCharsets.UTF_8);
+        
+        String[] lines = csv.split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("id,name,description,price,sku,size,color,categoryId,categoryName", lines[0]);
+        assertTrue(lines[1].contains(",\"Shirt, \"\"linen\"\"\",,12.50,EXP-0,"), lines[1]);
+    }
+    
+    @Test
+    void inventoryExportAsGzippedNdjson() throws Exception {
+        byte[] body = export(get("/api/export/inventory?format=ndjson").header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        
+        String ndjson;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lines = ndjson.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[2].contains("\"stockLevel\":20"), lines[2]);
+        assertTrue(lines[2].contains("\"sku\":\"EXP-2\""), lines[2]);
+    }
+    
+    @Test
+    void unknownFormatIsRejected() throws Exception {
+        mockMvc.perform(get("/api/export/products?format=xml")).andExpect(status().isBadRequest());
+    }
+    
+    private byte[] export(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult started = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.CONTENT_DISPOSITION))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
@@ -0,0 +1,103 @@
+package com.apparels.management.controller;
+
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Inventory;
+import com.apparels.management.entity.Location;
+import com.apparels.management.entity.Product;
+import com.apparels.management.repository.CategoryRepository;
+import com.apparels.management.repository.InventoryRepository;
+import com.apparels.management.repository.LocationRepository;
+import com.apparels.management.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// List endpoints must issue the same number of SQL statements however many
+// rows they return, i.e. no per-row loading of products or categories.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statementcount",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+class ListQueryStatementCountTests {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    
+    @Autowired
+    private LocationRepository locationRepository;
+    
+    private int seeded;
+    
+    @Test
+    void statementCountDoesNotGrowWithRowCount() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        
+        seed(5);
+        long inventoryStatements = countStatements(statistics, "/api/inventory?limit=1000");
+        long productStatements = countStatements(statistics, "/api/products?limit=1000");
+        long lowStockStatements = countStatements(statistics, "/api/inventory/low-stock?limit=1000");
+        
+        seed(200);
+        assertEquals(1, inventoryStatements);
+        assertEquals(1, productStatements);
+        assertEquals(inventoryStatements, countStatements(statistics, "/api/inventory?limit=1000"));
+        assertEquals(productStatements, countStatements(statistics, "/api/products?limit=1000"));
+        assertEquals(lowStockStatements, countStatements(statistics, "/api/inventory/low-stock?limit=1000"));
+    }
+    
+    private long countStatements(Statistics statistics, String url) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+    
+    // Each product gets its own category and location so per-row association loading would show up
+    private void seed(int count) {
+        for (int i = 0; i < count; i++) {
+            int n = seeded++;
+            Category category = new Category();
+            category.setName("Category " + n);
+            category = categoryRepository.save(category);
+            
+            Product product = new Product();
+            product.setName("Product " + n);
+            product.setSku("SKU-" + n);
+            product.setPrice(new BigDecimal("9.99"));
+            product.setCategory(category);
+            product = productRepository.save(product);
+            
+            Inventory inventory = new Inventory();
+            inventory.setProduct(product);
+            inventory.setStockLevel(n % 20);
+            inventory.setLocation(locationRepository.save(new Location("Location " + n)));
+            inventoryRepository.save(inventory);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.apparels.management.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The Prometheus scrape must carry endpoint, service, repository, pool and cache timings
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:metrics",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("dev")
+class MetricsEndpointTests {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Test
+    void prometheusScrapeExposesTimersAndCacheStatistics() throws Exception {
+        mockMvc.perform(get("/api/products")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/categories")).andExpect(status().isOk());
+        
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket"), "endpoint histogram");
+        assertTrue(scrape.contains("apparels_service_seconds_bucket"), "service histogram");
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket"), "repository histogram");
+        assertTrue(scrape.contains("hikaricp_connections_acquire_seconds"), "connection pool wait");
+        assertTrue(scrape.contains("cache_gets_total"), "cache hits and misses");
+    }
+}
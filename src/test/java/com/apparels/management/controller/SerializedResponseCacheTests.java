@@ -0,0 +1,91 @@
+package com.apparels.management.controller;
+
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Product;
+import com.apparels.management.service.CategoryService;
+import com.apparels.management.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:responsecache",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "cache.responses.gzip-min-size=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+class SerializedResponseCacheTests {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Test
+    void servesRepeatedListsFromSerialisedBytesUntilAWrite() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Category category = new Category();
+        category.setName("Denim");
+        category = categoryService.createCategory(category);
+        createProduct(category, "DENIM-1");
+        String url = "/api/products/category/" + category.getId();
+        
+        String json = mockMvc.perform(get(url)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(json.contains("DENIM-1"));
+        
+        statistics.clear();
+        assertEquals(json, mockMvc.perform(get(url)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        MvcResult gzipped = mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        assertEquals(0, statistics.getPrepareStatementCount());
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            assertEquals(json, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        
+        createProduct(category, "DENIM-2");
+        assertTrue(mockMvc.perform(get(url)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().contains("DENIM-2"));
+    }
+    
+    private void createProduct(Category category, String sku) {
+        Product product = new Product();
+        product.setName(sku);
+        product.setSku(sku);
+        product.setPrice(new BigDecimal("49.00"));
+        product.setCategory(category);
+        productService.createProduct(product);
+    }
+}
@@ -0,0 +1,128 @@
+package com.apparels.management.service;
+
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Product;
+import com.apparels.management.repository.ProductRepository;
+import com.apparels.management.search.CatalogueSnapshot;
+import com.apparels.management.search.CatalogueSnapshotStore;
+import com.apparels.management.search.ProductSearchIndex;
+import com.apparels.management.search.ProductSearchIndexLoader;
+import com.apparels.management.search.ProductSort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogueSnapshotTests extends CatalogueTestSupport {
+    
+    @TempDir
+    Path snapshotDirectory;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${spring.datasource.url}")
+    private String databaseUrl;
+    
+    // Snapshots are off in the shared context, so the store and loader are built here: the
+    // snapshot is taken of the live index and loaded into a new one, without a reconcile margin
+    @Test
+    void indexIsRebuiltFromTheSnapshotAndTheChangesSince() {
+        Path file = snapshotDirectory.resolve("catalogue.snapshot");
+        CatalogueSnapshotStore catalogueSnapshotStore =
+                new CatalogueSnapshotStore(productSearchIndex, true, file, databaseUrl);
+        ProductSearchIndex rebuilt = new ProductSearchIndex();
+        ProductSearchIndexLoader loader =
+                new ProductSearchIndexLoader(productRepository, rebuilt, catalogueSnapshotStore);
+        
+        Category category = createCategory("Snapshot");
+        createProduct(category, "SNAP-A", null, null, "10.00");
+        Product updated = createProduct(category, "SNAP-B", null, null, "20.00");
+        Product deleted = createProduct(category, "SNAP-C", null, null, "30.00");
+        Product untracked = createProduct(category, "SNAP-D", null, null, "40.00");
+        
+        catalogueSnapshotStore.write();
+        CatalogueSnapshot snapshot = catalogueSnapshotStore.read().orElseThrow();
+        assertTrue(Files.exists(file));
+        assertEquals(productRepository.count(), snapshot.size());
+        
+        updated.setPrice(new BigDecimal("25.00"));
+        productService.updateProduct(updated.getId(), updated);
+        productService.deleteProduct(deleted.getId());
+        createProduct(category, "SNAP-E", null, null, "50.00");
+        // A change that leaves updated_at alone is only seen by a full load
+        jdbcTemplate.update("UPDATE products SET name = ?, updated_at = ? WHERE id = ?",
+                "Renamed D", LocalDateTime.now().minusDays(1), untracked.getId());
+        
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> loader.load());
+        
+        // The index still has D under its snapshot name; C is gone, E is added and B has its new price
+        assertEquals(List.of("SNAP-A", "SNAP-B", "SNAP-D", "SNAP-E"),
+                skus(rebuilt.top("snap", null, null, null, null, null, null, ProductSort.parse("name"), 10)));
+        assertEquals(List.of("SNAP-B", "SNAP-D", "SNAP-E"),
+                skus(rebuilt.top("snap", null, null, new BigDecimal("22.00"), null, null, null,
+                        ProductSort.parse("price"), 10)));
+    }
+    
+    // A header whose counts do not fit the file is rejected, and the index is loaded from the table
+    @Test
+    void corruptHeaderFallsBackToAFullLoad() throws IOException {
+        Path file = snapshotDirectory.resolve("catalogue.snapshot");
+        CatalogueSnapshotStore catalogueSnapshotStore =
+                new CatalogueSnapshotStore(productSearchIndex, true, file, databaseUrl);
+        ProductSearchIndex rebuilt = new ProductSearchIndex();
+        ProductSearchIndexLoader loader =
+                new ProductSearchIndexLoader(productRepository, rebuilt, catalogueSnapshotStore);
+        Category category = createCategory("Corrupt Snapshot");
+        createProduct(category, "CORRUPT-A", null, null, "10.00");
+        
+        // Row count, then dictionary size: after the magic, version, time and source
+        for (int value : new int[]{-1, Integer.MAX_VALUE}) {
+            for (int field = 0; field < 2; field++) {
+                catalogueSnapshotStore.write();
+                try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                    raf.seek(2 * Integer.BYTES + Long.BYTES);
+                    int sourceLength = raf.readInt();
+                    raf.seek(3 * Integer.BYTES + Long.BYTES + sourceLength + (long) Integer.BYTES * field);
+                    raf.writeInt(value);
+                }
+                assertTrue(catalogueSnapshotStore.read().isEmpty());
+                
+                TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+                readOnly.setReadOnly(true);
+                readOnly.executeWithoutResult(status -> loader.load());
+                assertTrue(rebuilt.isReady());
+                assertEquals(productRepository.count(), rebuilt.size());
+            }
+        }
+    }
+    
+    private List<String> skus(List<Long> ids) {
+        return ids.stream().map(id -> productRepository.findById(id).orElseThrow().getSku()).toList();
+    }
+}
@@ -0,0 +1,40 @@
+package com.apparels.management.service;
+
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+// Base for the catalogue tests: one shared application context on the default dev
+// database, so the tests that extend it must use their own category names and SKUs
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("dev")
+abstract class CatalogueTestSupport {
+    
+    @Autowired
+    protected CategoryService categoryService;
+    
+    @Autowired
+    protected ProductService productService;
+    
+    protected Category createCategory(String name) {
+        Category category = new Category();
+        category.setName(name);
+        return categoryService.createCategory(category);
+    }
+    
+    // Named after its SKU
+    protected Product createProduct(Category category, String sku, String size, String color, String price) {
+        Product product = new Product();
+        product.setName(sku);
+        product.setSku(sku);
+        product.setSize(size);
+        product.setColor(color);
+        product.setPrice(new BigDecimal(price));
+        product.setCategory(category);
+        return productService.createProduct(product);
+    }
+}
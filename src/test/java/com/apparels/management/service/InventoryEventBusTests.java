@@ -0,0 +1,132 @@
+package com.apparels.management.service;
+
+import com.apparels.management.dto.InventoryStreamEvent;
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Inventory;
+import com.apparels.management.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:eventbus",
+        "spring.jpa.show-sql=false",
+        "inventory.stream.queue-capacity=8"
+})
+@ActiveProfiles("dev")
+class InventoryEventBusTests {
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private InventoryEventBus inventoryEventBus;
+    
+    @Test
+    void fansOutCommittedChangesDropsSlowSubscribersAndReplaysOnReconnect() throws Exception {
+        Category category = new Category();
+        category.setName("Stream");
+        category = categoryService.createCategory(category);
+        
+        Product product = new Product();
+        product.setName("Stream Tee");
+        product.setSku("STREAM-1");
+        product.setPrice(new BigDecimal("15.00"));
+        product.setCategory(category);
+        product = productService.createProduct(product);
+        
+        Inventory inventory = new Inventory();
+        inventory.setStockLevel(50);
+        Long id = inventoryService.createInventory(product.getId(), inventory).getId();
+        
+        Collector fast = new Collector();
+        inventoryEventBus.subscribe(null, fast);
+        
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean slowDropped = new AtomicBoolean();
+        inventoryEventBus.subscribe(null, new InventoryEventBus.Subscriber() {
+            @Override
+            public void deliver(List<InventoryStreamEvent> events) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            
+            @Override
+            public void closed(boolean dropped) {
+                slowDropped.set(dropped);
+            }
+        });
+        
+        for (int i = 1; i <= 20; i++) {
+            inventoryService.addStock(id, 1);
+        }
+        await(() -> fast.events.size() == 20);
+        await(slowDropped::get);
+        release.countDown();
+        
+        InventoryStreamEvent last = fast.events.get(19);
+        assertEquals(InventoryStreamEvent.Type.INVENTORY_CHANGED, last.getType());
+        assertEquals(id, last.getInventoryId());
+        assertEquals(70, last.getStockLevel());
+        assertFalse(fast.closed);
+        
+        // A reconnect resumes after the last event it saw
+        Collector resumed = new Collector();
+        inventoryEventBus.subscribe(fast.events.get(16).getSequence(), resumed);
+        await(() -> resumed.events.size() == 3);
+        assertEquals(fast.events.subList(17, 20), resumed.events);
+        
+        // Events that can no longer be replayed are answered with a RESYNC
+        Collector stale = new Collector();
+        inventoryEventBus.subscribe(fast.events.get(0).getSequence() - 1000, stale);
+        await(() -> stale.events.size() == 1);
+        assertEquals(InventoryStreamEvent.Type.RESYNC, stale.events.get(0).getType());
+    }
+    
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for stream events");
+            Thread.sleep(10);
+        }
+    }
+    
+    private static class Collector implements InventoryEventBus.Subscriber {
+        
+        final List<InventoryStreamEvent> events = new CopyOnWriteArrayList<>();
+        volatile boolean closed;
+        
+        @Override
+        public void deliver(List<InventoryStreamEvent> batch) {
+            events.addAll(batch);
+        }
+        
+        @Override
+        public void closed(boolean dropped) {
+            closed = true;
+        }
+    }
+}
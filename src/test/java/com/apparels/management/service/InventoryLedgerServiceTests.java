@@ -0,0 +1,119 @@
+package com.apparels.management.service;
+
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Inventory;
+import com.apparels.management.entity.InventoryMovement;
+import com.apparels.management.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledger",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("dev")
+class InventoryLedgerServiceTests {
+    
+    private static final int THREADS = 8;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private InventoryLedgerService inventoryLedgerService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void journalAnswersPointInTimeQueriesAndRebuildsDriftedRows() throws Exception {
+        Long id = createInventory("LEDGER-1", 10);
+        inventoryService.addStock(id, 5);
+        inventoryService.removeStock(id, 3);
+        
+        inventoryLedgerService.snapshot();
+        Thread.sleep(20);
+        LocalDateTime afterSnapshot = LocalDateTime.now();
+        Thread.sleep(20);
+        inventoryService.updateStockLevel(id, 20);
+        
+        List<InventoryMovement> movements = inventoryLedgerService.getMovements(id, 0L, 100);
+        assertEquals(List.of(10, 5, -3, 8), movements.stream().map(InventoryMovement::getQuantity).toList());
+        assertEquals(List.of(InventoryMovement.Type.RECEIVE, InventoryMovement.Type.RECEIVE,
+                        InventoryMovement.Type.SELL, InventoryMovement.Type.ADJUST),
+                movements.stream().map(InventoryMovement::getType).toList());
+        
+        assertEquals(12, inventoryLedgerService.getStockLevelAt(id, afterSnapshot));
+        assertEquals(20, inventoryLedgerService.getStockLevelAt(id, LocalDateTime.now()));
+        
+        // A write that bypasses the journal is undone by a rebuild
+        jdbcTemplate.update("UPDATE inventory SET stock_level = 99 WHERE id = ?", id);
+        assertEquals(20, inventoryLedgerService.rebuild(id).getStockLevel());
+    }
+    
+    // An absolute write racing relative ones must neither lose them nor journal a
+    // difference against a stale level, so the journal still sums to the row
+    @Test
+    void concurrentAbsoluteAndRelativeWritesKeepTheJournalInStep() throws Exception {
+        Long id = createInventory("LEDGER-2", 100);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            boolean absolute = t % 4 == 0;
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < 25; i++) {
+                    if (absolute) {
+                        inventoryService.updateStockLevel(id, 100 + i);
+                    } else {
+                        inventoryService.addStock(id, 1);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        
+        int level = inventoryService.getInventoryById(id).orElseThrow().getStockLevel();
+        assertEquals(level, inventoryLedgerService.rebuild(id).getStockLevel());
+    }
+    
+    private Long createInventory(String sku, int stockLevel) {
+        Category category = new Category();
+        category.setName("Ledger " + sku);
+        category = categoryService.createCategory(category);
+        
+        Product product = new Product();
+        product.setName("Ledger Tee");
+        product.setSku(sku);
+        product.setPrice(new BigDecimal("12.00"));
+        product.setCategory(category);
+        product = productService.createProduct(product);
+        
+        Inventory inventory = new Inventory();
+        inventory.setStockLevel(stockLevel);
+        return inventoryService.createInventory(product.getId(), inventory).getId();
+    }
+}
@@ -0,0 +1,86 @@
+package com.apparels.management.service;
+
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Inventory;
+import com.apparels.management.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Many threads removing stock from one hot SKU must sell exactly the available
+// quantity, never more. Throughput under contention is measured by
+// InventoryBenchmark in the benchmarks module.
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("dev")
+class InventoryServiceConcurrencyTests {
+    
+    private static final int THREADS = 64;
+    private static final int INITIAL_STOCK = 2000;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Test
+    void concurrentRemovalsNeverOversell() throws Exception {
+        Category category = new Category();
+        category.setName("Contention");
+        category = categoryService.createCategory(category);
+        
+        Product product = new Product();
+        product.setName("Hot SKU");
+        product.setSku("HOT-SKU-1");
+        product.setPrice(new BigDecimal("19.99"));
+        product.setCategory(category);
+        product = productService.createProduct(product);
+        
+        Inventory inventory = new Inventory();
+        inventory.setStockLevel(INITIAL_STOCK);
+        Long inventoryId = inventoryService.createInventory(product.getId(), inventory).getId();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int sold = 0;
+                while (true) {
+                    try {
+                        inventoryService.removeStock(inventoryId, 1);
+                        sold++;
+                    } catch (IllegalStateException soldOut) {
+                        return sold;
+                    }
+                }
+            }));
+        }
+        
+        start.countDown();
+        int totalSold = 0;
+        for (Future<Integer> result : results) {
+            totalSold += result.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        
+        assertEquals(INITIAL_STOCK, totalSold);
+        assertEquals(0, inventoryService.getInventoryById(inventoryId).orElseThrow().getStockLevel());
+    }
+}
@@ -0,0 +1,119 @@
+package com.apparels.management.service;
+
+import com.apparels.management.dto.InventoryRow;
+import com.apparels.management.dto.StockTransferRequest;
+import com.apparels.management.dto.StockTransferResult;
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Inventory;
+import com.apparels.management.entity.InventoryMovement;
+import com.apparels.management.entity.Location;
+import com.apparels.management.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transfers",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("dev")
+class InventoryTransferTests {
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private InventoryLedgerService inventoryLedgerService;
+    
+    @Autowired
+    private LocationService locationService;
+    
+    @Test
+    void transfersStockBetweenLocationsAtomically() throws Exception {
+        Category category = new Category();
+        category.setName("Transfers");
+        category = categoryService.createCategory(category);
+        
+        Product product = new Product();
+        product.setName("Transfer Tee");
+        product.setSku("TRANSFER-1");
+        product.setPrice(new BigDecimal("12.00"));
+        product.setCategory(category);
+        Long productId = productService.createProduct(product).getId();
+        
+        Inventory store = new Inventory();
+        store.setStockLevel(10);
+        store.setLocation(new Location("Store A"));
+        store = inventoryService.createInventory(productId, store);
+        Long storeLocationId = store.getLocation().getId();
+        Long warehouseId = locationService.createLocation(new Location("Warehouse")).getId();
+        
+        Inventory duplicate = new Inventory();
+        duplicate.setLocation(new Location(storeLocationId, null, null));
+        assertThrows(IllegalStateException.class, () -> inventoryService.createInventory(productId, duplicate));
+        
+        // The destination row is created by the first transfer
+        StockTransferResult result = inventoryService.transferStock(
+                new StockTransferRequest(productId, storeLocationId, warehouseId, 4));
+        assertEquals(6, result.getFrom().getStockLevel());
+        assertEquals(4, result.getTo().getStockLevel());
+        assertEquals(List.of(storeLocationId, warehouseId), inventoryService.getInventoryRowsByProductId(productId).stream()
+                .map(row -> row.getLocation().getId()).toList());
+        assertEquals(-4, inventoryLedgerService.getMovements(store.getId(), 0L, 10).stream()
+                .filter(movement -> movement.getType() == InventoryMovement.Type.TRANSFER)
+                .mapToInt(InventoryMovement::getQuantity).sum());
+        
+        // A transfer the source cannot cover changes neither row
+        assertThrows(IllegalStateException.class, () -> inventoryService.transferStock(
+                new StockTransferRequest(productId, warehouseId, storeLocationId, 5)));
+        assertEquals(List.of(6, 4), stockLevels(productId));
+        
+        // Opposite transfers running concurrently neither deadlock nor lose stock
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Long from = t % 2 == 0 ? storeLocationId : warehouseId;
+            Long to = t % 2 == 0 ? warehouseId : storeLocationId;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 25; i++) {
+                    try {
+                        inventoryService.transferStock(new StockTransferRequest(productId, from, to, 1));
+                    } catch (IllegalStateException empty) {
+                        // The source ran dry; the other direction refills it
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        
+        assertEquals(10, stockLevels(productId).stream().mapToInt(Integer::intValue).sum());
+        assertEquals(10L, inventoryService.getStockTotal(productId).orElseThrow().getTotalStock());
+        assertEquals(2L, inventoryService.getStockTotal(productId).orElseThrow().getLocations());
+    }
+    
+    private List<Integer> stockLevels(Long productId) {
+        return inventoryService.getInventoryRowsByProductId(productId).stream().map(InventoryRow::getStockLevel).toList();
+    }
+}
@@ -0,0 +1,94 @@
+package com.apparels.management.service;
+
+import com.apparels.management.dto.InventoryRow;
+import com.apparels.management.dto.LowStockAlert;
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Inventory;
+import com.apparels.management.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lowstock",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("dev")
+@RecordApplicationEvents
+class LowStockTrackerTests {
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private LowStockTracker lowStockTracker;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ApplicationEvents events;
+    
+    @Test
+    void tracksTransitionsIncrementallyAndOrdersBySeverity() {
+        Category category = new Category();
+        category.setName("Low Stock");
+        category = categoryService.createCategory(category);
+        
+        Long mild = createInventory(category, "LOW-1", 9);
+        Long severe = createInventory(category, "LOW-2", 2);
+        Long healthy = createInventory(category, "LOW-3", 50);
+        
+        assertEquals(List.of(mild, severe), ids(inventoryService.getLowStockItems(0L, 100)));
+        assertEquals(List.of(severe, mild), ids(inventoryService.getMostSevereLowStockItems(100)));
+        
+        inventoryService.removeStock(healthy, 49);
+        inventoryService.addStock(mild, 20);
+        assertEquals(List.of(healthy, severe), ids(inventoryService.getMostSevereLowStockItems(100)));
+        
+        List<LowStockAlert> alerts = events.stream(LowStockAlert.class).toList();
+        assertEquals(List.of(mild, severe, healthy, mild), alerts.stream().map(LowStockAlert::getInventoryId).toList());
+        assertEquals(List.of(LowStockAlert.Transition.ENTERED, LowStockAlert.Transition.ENTERED,
+                        LowStockAlert.Transition.ENTERED, LowStockAlert.Transition.LEFT),
+                alerts.stream().map(LowStockAlert::getTransition).toList());
+        
+        // Rows changed outside the application are picked up by the reload
+        jdbcTemplate.update("UPDATE inventory SET stock_level = 100 WHERE id = ?", severe);
+        lowStockTracker.reload();
+        assertEquals(List.of(healthy), ids(inventoryService.getLowStockItems(0L, 100)));
+        assertEquals(LowStockAlert.Transition.LEFT, events.stream(LowStockAlert.class).toList().get(4).getTransition());
+    }
+    
+    private Long createInventory(Category category, String sku, int stockLevel) {
+        Product product = new Product();
+        product.setName(sku);
+        product.setSku(sku);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setCategory(category);
+        product = productService.createProduct(product);
+        
+        Inventory inventory = new Inventory();
+        inventory.setStockLevel(stockLevel);
+        inventory.setReorderLevel(10);
+        return inventoryService.createInventory(product.getId(), inventory).getId();
+    }
+    
+    private static List<Long> ids(List<InventoryRow> rows) {
+        return rows.stream().map(InventoryRow::getId).toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.apparels.management.service;
+
+import com.apparels.management.dto.ProductFacets;
+import com.apparels.management.entity.Category;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductFacetsTests extends CatalogueTestSupport {
+    
+    @Test
+    void countsEachFacetWithTheOtherFiltersApplied() {
+        Category shirts = createCategory("Facet Shirts");
+        Category pants = createCategory("Facet Pants");
+        createProduct(shirts, "FACET-1", "M", "Navy", "20.00");
+        createProduct(shirts, "FACET-2", "L", "Navy", "30.00");
+        createProduct(shirts, "FACET-3", "M", "Red", "60.00");
+        Long deleted = createProduct(pants, "FACET-4", "M", "Navy", "45.00").getId();
+        createProduct(pants, "FACET-5", "S", "Navy", "25.00");
+        productService.deleteProduct(deleted);
+        
+        ProductFacets all = productService.getFacets(null, "facet-", null, null, null, null, null);
+        assertEquals(4, all.getTotal());
+        assertEquals(Map.of(shirts.getId(), 3L, pants.getId(), 1L), all.getCategories());
+        assertEquals(Map.of("S", 1L, "M", 2L, "L", 1L), all.getSizes());
+        assertEquals(List.of(1L, 2L, 1L, 0L, 0L), all.getPriceBuckets().stream().map(ProductFacets.PriceBucket::getCount).toList());
+        
+        // The size facet ignores the size filter; the other facets respect it
+        ProductFacets medium = productService.getFacets(null, "facet-", null, null, null, "M", "Navy");
+        assertEquals(1, medium.getTotal());
+        assertEquals(Map.of("M", 1L, "L", 1L, "S", 1L), medium.getSizes());
+        assertEquals(Map.of("Navy", 1L, "Red", 1L), medium.getColors());
+        assertEquals(Map.of(shirts.getId(), 1L), medium.getCategories());
+        
+        ProductFacets priced = productService.getFacets(null, "facet-", shirts.getId(),
+                new BigDecimal("25"), new BigDecimal("100"), null, null);
+        assertEquals(2, priced.getTotal());
+        assertEquals(Map.of("L", 1L, "M", 1L), priced.getSizes());
+        assertEquals(List.of(1L, 1L, 1L, 0L, 0L), priced.getPriceBuckets().stream().map(ProductFacets.PriceBucket::getCount).toList());
+    }
+    
+    // Price filters beyond the index's cents range are clamped instead of overflowing
+    @Test
+    void outOfRangePriceFiltersMatchEverythingOrNothing() {
+        Category category = createCategory("Facet Range");
+        createProduct(category, "RANGE-1", "M", "Navy", "20.00");
+        BigDecimal huge = new BigDecimal("1e30");
+        
+        assertEquals(0, productService.getFacets(null, "range-", null, huge, null, null, null).getTotal());
+        assertEquals(1, productService.getFacets(null, "range-", null, huge.negate(), huge, null, null).getTotal());
+        assertEquals(1, productService.searchProducts(null, "range-", null, null, huge, null, null, 0L, 10).size());
+    }
+}
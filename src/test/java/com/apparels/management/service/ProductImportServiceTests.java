@@ -0,0 +1,108 @@
+package com.apparels.management.service;
+
+import com.apparels.management.dto.ImportReport;
+import com.apparels.management.dto.ImportRowError;
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Inventory;
+import com.apparels.management.entity.Product;
+import com.apparels.management.repository.InventoryRepository;
+import com.apparels.management.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalogueimport",
+        "spring.jpa.show-sql=false",
+        "catalogue.import.batch-size=2"
+})
+@ActiveProfiles("dev")
+class ProductImportServiceTests {
+    
+    @Autowired
+    private ProductImportService productImportService;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    
+    private Category category;
+    
+    @BeforeEach
+    void createCategory() {
+        category = categoryService.getCategoryByName("Imports").orElseGet(() -> {
+            Category created = new Category();
+            created.setName("Imports");
+            return categoryService.createCategory(created);
+        });
+    }
+    
+    @Test
+    void csvImportWritesValidRowsAndReportsRejectedOnes() throws Exception {
+        String csv = """
+                name,description,price,sku,size,color,category,stock_level,location
+                Linen Shirt,"Light, breathable ""summer"" shirt",29.99,CSV-1,M,White,imports,12,Aisle 1
+                Denim Jacket,,89.00,CSV-2,L,Blue,Imports,,
+                Wool Scarf,,15.00,CSV-3,,Grey,Imports,3,
+                Duplicate,,10.00,CSV-1,,,Imports,,
+                Lost,,10.00,CSV-4,,,Nowhere,,
+                Bad Price,,abc,CSV-5,,,Imports,,
+                """;
+        
+        ImportReport report = productImportService.importCsv(stream(csv));
+        
+        assertEquals("COMPLETED", report.getStatus());
+        assertEquals(6, report.getRowsRead());
+        assertEquals(3, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertEquals(List.of(4L, 5L, 6L), report.getErrors().stream().map(ImportRowError::getRow).toList());
+        
+        Product shirt = productRepository.findBySku("CSV-1").orElseThrow();
+        assertEquals("Light, breathable \"summer\" shirt", shirt.getDescription());
+        assertEquals(0, new BigDecimal("29.99").compareTo(shirt.getPrice()));
+        assertEquals(category.getId(), shirt.getCategory().getId());
+        List<Inventory> shirtInventory = inventoryRepository.findByProductIdOrderByLocationId(shirt.getId());
+        assertEquals(1, shirtInventory.size());
+        assertEquals(12, shirtInventory.get(0).getStockLevel());
+        assertEquals("Aisle 1", shirtInventory.get(0).getLocation().getName());
+        
+        Product jacket = productRepository.findBySku("CSV-2").orElseThrow();
+        assertTrue(inventoryRepository.findByProductIdOrderByLocationId(jacket.getId()).isEmpty());
+    }
+    
+    @Test
+    void ndjsonImportRejectsMalformedLinesAndExistingSkus() throws Exception {
+        String ndjson = """
+                {"name":"Cotton Tee","price":9.5,"sku":"ND-1","categoryId":%d,"stockLevel":40}
+                {"name":"Broken",
+                {"name":"Cotton Tee Again","price":9.5,"sku":"ND-1","categoryId":%d}
+                """.formatted(category.getId(), category.getId());
+        
+        ImportReport report = productImportService.importNdjson(stream(ndjson));
+        
+        assertEquals(3, report.getRowsRead());
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertTrue(productRepository.findBySku("ND-1").isPresent());
+    }
+    
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
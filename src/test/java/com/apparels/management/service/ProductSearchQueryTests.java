@@ -0,0 +1,157 @@
+package com.apparels.management.service;
+
+import com.apparels.management.dto.ProductSummary;
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Product;
+import com.apparels.management.repository.CategoryRepository;
+import com.apparels.management.repository.ProductRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The database search (used until the in-memory index is built) sends only the given
+// filters, and H2's EXPLAIN of the statement shows the matching index on products.
+// Values are inlined into the SQL so the recorded statement can be explained as it is.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:searchquery",
+        "spring.jpa.show-sql=false",
+        "search.index.enabled=false",
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.apparels.management.service.ProductSearchQueryTests$LastStatement"
+})
+@ActiveProfiles("dev")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductSearchQueryTests {
+    
+    private static final int PRODUCTS = 400;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private final List<Category> categories = new ArrayList<>();
+    
+    // Records the SQL of the test thread only, not of scheduled jobs
+    public static class LastStatement implements StatementInspector {
+        
+        private static final ThreadLocal<String> SQL = new ThreadLocal<>();
+        
+        @Override
+        public String inspect(String sql) {
+            SQL.set(sql);
+            return sql;
+        }
+    }
+    
+    @BeforeAll
+    void seed() {
+        for (int i = 0; i < 5; i++) {
+            Category category = new Category();
+            category.setName("Query Category " + i);
+            categories.add(categoryRepository.save(category));
+        }
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName(i % 50 == 0 ? "Query 100% Cotton " + i : "Query Shirt " + i);
+            product.setSku("QUERY-" + i);
+            product.setPrice(BigDecimal.valueOf(10 + i % 100));
+            product.setSize("SZ" + i % 20);
+            product.setColor("Color" + i % 10);
+            product.setCategory(categories.get(i % 5));
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+        // Column selectivity for the planner
+        jdbcTemplate.execute("ANALYZE");
+    }
+    
+    @Test
+    void sendsOnlyTheGivenFilters() {
+        search(null, null, null, null, "SZ3", null);
+        String where = whereClause();
+        assertTrue(where.contains("size"), where);
+        assertFalse(where.contains("null"), where);
+        assertFalse(where.contains("color"), where);
+        assertFalse(where.contains("price"), where);
+        assertFalse(where.contains("category"), where);
+        
+        search(null, categories.get(1).getId(), new BigDecimal("20"), null, null, "Color1");
+        where = whereClause();
+        assertTrue(where.contains("category_id") && where.contains("price") && where.contains("color"), where);
+        assertFalse(where.contains("null"), where);
+        assertFalse(where.contains("size"), where);
+    }
+    
+    @Test
+    void equalityFiltersUseTheirIndexes() {
+        search(null, null, null, null, "SZ3", null);
+        assertTrue(explainLastStatement().contains("IDX_PRODUCTS_SIZE"));
+        
+        search(null, null, null, null, null, "Color7");
+        assertTrue(explainLastStatement().contains("IDX_PRODUCTS_COLOR"));
+    }
+    
+    @Test
+    void returnsMatchingRowsInKeysetOrder() {
+        List<ProductSummary> first = search(null, categories.get(2).getId(), new BigDecimal("30"),
+                new BigDecimal("60"), null, null);
+        assertFalse(first.isEmpty());
+        Long previous = 0L;
+        for (ProductSummary product : first) {
+            assertTrue(product.getId() > previous);
+            assertEquals(categories.get(2).getId(), product.getCategory().getId());
+            assertTrue(product.getPrice().compareTo(new BigDecimal("30")) >= 0
+                    && product.getPrice().compareTo(new BigDecimal("60")) <= 0);
+            previous = product.getId();
+        }
+        
+        List<ProductSummary> next = productService.searchProducts(null, null, categories.get(2).getId(),
+                new BigDecimal("30"), new BigDecimal("60"), null, null, first.get(first.size() - 1).getId(), 10);
+        assertTrue(next.stream().allMatch(product -> product.getId() > first.get(first.size() - 1).getId()));
+        
+        // % in the name filter is matched literally
+        List<ProductSummary> cotton = search("100%", null, null, null, null, null);
+        assertEquals(PRODUCTS / 50, cotton.size());
+        assertTrue(cotton.stream().allMatch(product -> product.getName().contains("100% Cotton")));
+    }
+    
+    private List<ProductSummary> search(String name, Long categoryId, BigDecimal minPrice, BigDecimal maxPrice,
+                                        String size, String color) {
+        return productService.searchProducts(name, null, categoryId, minPrice, maxPrice, size, color, 0L, 10);
+    }
+    
+    private String whereClause() {
+        String sql = LastStatement.SQL.get().toLowerCase(Locale.ROOT);
+        return sql.substring(sql.indexOf(" where "));
+    }
+    
+    // The row limit is still bound as a parameter
+    private String explainLastStatement() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + LastStatement.SQL.get().replace("?", "10"), String.class);
+        return plan.toUpperCase(Locale.ROOT);
+    }
+}
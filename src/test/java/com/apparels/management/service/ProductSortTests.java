@@ -0,0 +1,57 @@
+package com.apparels.management.service;
+
+import com.apparels.management.dto.ProductSummary;
+import com.apparels.management.entity.Category;
+import com.apparels.management.search.ProductSort;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductSortTests extends CatalogueTestSupport {
+    
+    @Test
+    void returnsTheFirstProductsInSortOrder() {
+        Category shirts = createCategory("Sort Shirts");
+        Category pants = createCategory("Sort Pants");
+        createProduct(shirts, "SORT-B", "M", null, "40.00");
+        createProduct(shirts, "SORT-D", "L", null, "15.50");
+        createProduct(pants, "SORT-A", "M", null, "9.99");
+        createProduct(shirts, "SORT-C", "M", null, "15.50");
+        Long deleted = createProduct(shirts, "SORT-E", "S", null, "1.00").getId();
+        createProduct(shirts, "SORT-F", "M", null, "99.00");
+        productService.deleteProduct(deleted);
+        
+        // Cheapest in category, equal prices by id
+        assertEquals(List.of("SORT-D", "SORT-C", "SORT-B"),
+                skus(productService.getTopProducts(null, null, shirts.getId(), null, null, null, null, sort("price"), 3)));
+        // Newest arrivals
+        assertEquals(List.of("SORT-F", "SORT-C", "SORT-A"),
+                skus(productService.getTopProducts("sort-", null, null, null, null, null, null, sort("-createdAt"), 3)));
+        assertEquals(List.of("SORT-A", "SORT-B", "SORT-C", "SORT-D", "SORT-F"),
+                skus(productService.getTopProducts("sort-", null, null, null, null, null, null, sort("name"), 10)));
+        // Price range walked from the top, combined with a size filter
+        assertEquals(List.of("SORT-B", "SORT-C"),
+                skus(productService.getTopProducts("sort-", null, null, new BigDecimal("10"), new BigDecimal("50"), "M",
+                        null, sort("-price"), 10)));
+        assertEquals(List.of("SORT-F"),
+                skus(productService.getTopProductsByCategoryName("Sort Shirts", sort("-price"), 1)));
+    }
+    
+    @Test
+    void rejectsUnknownSortFields() {
+        assertEquals(new ProductSort(ProductSort.Field.CREATED_AT, true), ProductSort.parse("-createdAt"));
+        assertThrows(IllegalArgumentException.class, () -> ProductSort.parse("sku"));
+    }
+    
+    private static ProductSort sort(String sort) {
+        return ProductSort.parse(sort);
+    }
+    
+    private static List<String> skus(List<ProductSummary> products) {
+        return products.stream().map(ProductSummary::getSku).toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.apparels.management.service;
+
+import com.apparels.management.config.ReplicaLagMonitor;
+import com.apparels.management.config.ReplicaRoutingDataSource;
+import com.apparels.management.entity.Category;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The "replica" is a second pool on the same in-memory database; the router's
+// connection counters show which pool served each transaction
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicas;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "datasource.replica.enabled=true",
+        "datasource.replica.url=jdbc:h2:mem:replicas;DB_CLOSE_DELAY=-1",
+        "datasource.replica.lag-query=SELECT 0",
+        "datasource.replica.lag-check-interval-ms=3600000"
+})
+@ActiveProfiles("dev")
+class ReadReplicaRoutingTests {
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @BeforeEach
+    void replicaInSync() {
+        replicaLagMonitor.recordLag(Duration.ZERO);
+    }
+    
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndWritesThePrimary() {
+        double replica = connections("replica");
+        double primary = connections("primary");
+        
+        Category category = new Category();
+        category.setName("Routing");
+        categoryService.createCategory(category);
+        assertEquals(replica, connections("replica"));
+        assertTrue(connections("primary") > primary);
+        
+        primary = connections("primary");
+        productService.getAllProducts(0L, 10);
+        assertEquals(replica + 1, connections("replica"));
+        assertEquals(primary, connections("primary"));
+    }
+    
+    @Test
+    void laggingReplicaIsBypassedUntilItCatchesUp() {
+        replicaLagMonitor.recordLag(Duration.ofSeconds(30));
+        double replica = connections("replica");
+        double primary = connections("primary");
+        
+        productService.getAllProducts(0L, 10);
+        assertEquals(replica, connections("replica"));
+        assertEquals(primary + 1, connections("primary"));
+        
+        replicaLagMonitor.recordLag(Duration.ZERO);
+        productService.getAllProducts(0L, 10);
+        assertEquals(replica + 1, connections("replica"));
+    }
+    
+    @Test
+    void pinnedReadsUseThePrimary() {
+        double replica = connections("replica");
+        double primary = connections("primary");
+        
+        ReplicaRoutingDataSource.onPrimary(() -> productService.getAllProducts(0L, 10));
+        assertEquals(replica, connections("replica"));
+        assertEquals(primary + 1, connections("primary"));
+    }
+    
+    private double connections(String target) {
+        return meterRegistry.get("apparels.datasource.connections").tag("target", target).counter().count();
+    }
+}
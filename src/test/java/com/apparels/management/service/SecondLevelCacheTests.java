@@ -0,0 +1,89 @@
+package com.apparels.management.service;
+
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Product;
+import com.apparels.management.repository.CategoryRepository;
+import com.apparels.management.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Repeated lookups of categories and products by id, name, SKU and category are
+// answered from the second-level and query caches without any SQL, until a write
+// to the underlying table invalidates them.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:secondlevelcache",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("dev")
+class SecondLevelCacheTests {
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Test
+    void repeatedLookupsIssueNoStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Category category = saveCategory("Cached");
+        Product product = saveProduct("L2-1", category);
+        
+        lookUp(category, product);
+        statistics.clear();
+        lookUp(category, product);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+        assertTrue(statistics.getQueryCacheHitCount() >= 3);
+    }
+    
+    @Test
+    void writesInvalidateCachedQueryResults() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Category category = saveCategory("Invalidated");
+        saveProduct("L2-2", category);
+        
+        assertEquals(1, productRepository.findSummariesByCategoryId(category.getId(), 0L, PageRequest.ofSize(10)).size());
+        saveProduct("L2-3", category);
+        statistics.clear();
+        assertEquals(2, productRepository.findSummariesByCategoryId(category.getId(), 0L, PageRequest.ofSize(10)).size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+    
+    private void lookUp(Category category, Product product) {
+        categoryRepository.findById(category.getId()).orElseThrow();
+        categoryRepository.findByName(category.getName()).orElseThrow();
+        productRepository.findById(product.getId()).orElseThrow();
+        productRepository.findBySku(product.getSku()).orElseThrow();
+        productRepository.findSummariesByCategoryId(category.getId(), 0L, PageRequest.ofSize(10));
+    }
+    
+    private Category saveCategory(String name) {
+        Category category = new Category();
+        category.setName(name);
+        return categoryRepository.save(category);
+    }
+    
+    private Product saveProduct(String sku, Category category) {
+        Product product = new Product();
+        product.setName("Product " + sku);
+        product.setSku(sku);
+        product.setPrice(new BigDecimal("19.99"));
+        product.setCategory(category);
+        return productRepository.save(product);
+    }
+}
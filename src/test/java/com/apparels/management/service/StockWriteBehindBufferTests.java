@@ -0,0 +1,211 @@
+package com.apparels.management.service;
+
+import com.apparels.management.entity.Category;
+import com.apparels.management.entity.Inventory;
+import com.apparels.management.entity.Product;
+import com.apparels.management.entity.StockRejection;
+import com.apparels.management.repository.InventoryBatchRepository;
+import com.apparels.management.repository.InventoryMovementRepository;
+import com.apparels.management.repository.InventoryRepository;
+import com.apparels.management.repository.StockRejectionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:writebehind",
+        "spring.jpa.show-sql=false",
+        "inventory.write-behind.enabled=true",
+        "inventory.write-behind.flush-interval-ms=3600000",
+        "inventory.write-behind.flush-threshold=1000000"
+})
+@ActiveProfiles("dev")
+class StockWriteBehindBufferTests {
+    
+    @TempDir
+    static Path walDirectory;
+    
+    @DynamicPropertySource
+    static void walDirectory(DynamicPropertyRegistry registry) {
+        registry.add("inventory.write-behind.wal-directory", () -> walDirectory.toString());
+    }
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    
+    @Autowired
+    private StockWriteBehindBuffer stockWriteBehindBuffer;
+    
+    @Autowired
+    private StockRejectionRepository stockRejectionRepository;
+    
+    @Autowired
+    private InventoryBatchRepository inventoryBatchRepository;
+    
+    @Autowired
+    private InventoryMovementRepository inventoryMovementRepository;
+    
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+    
+    @Autowired
+    private LowStockTracker lowStockTracker;
+    
+    @Autowired
+    private InventoryEventBus inventoryEventBus;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void changesAreAcknowledgedFromMemoryAndCoalescedOnFlush() {
+        Long id = createInventory("POS-1", 10);
+        
+        assertEquals(15, inventoryService.addStock(id, 5).getStockLevel());
+        assertEquals(11, inventoryService.removeStock(id, 4).getStockLevel());
+        assertThrows(IllegalStateException.class, () -> inventoryService.removeStock(id, 12));
+        
+        // Nothing reaches the row before a flush
+        assertEquals(10, inventoryRepository.findById(id).orElseThrow().getStockLevel());
+        
+        stockWriteBehindBuffer.flush();
+        assertEquals(11, inventoryRepository.findById(id).orElseThrow().getStockLevel());
+        assertEquals(10, inventoryService.removeStock(id, 1).getStockLevel());
+    }
+    
+    @Test
+    void absoluteWritesReplaceBufferedDeltas() {
+        Long id = createInventory("POS-2", 10);
+        inventoryService.addStock(id, 5);
+        
+        // The +5 acknowledged before the write is not applied on top of it
+        assertEquals(40, inventoryService.updateStockLevel(id, 40).getStockLevel());
+        assertEquals(38, inventoryService.removeStock(id, 2).getStockLevel());
+        stockWriteBehindBuffer.flush();
+        assertEquals(38, inventoryRepository.findById(id).orElseThrow().getStockLevel());
+    }
+    
+    @Test
+    void deltasTheDatabaseRejectsAreDeadLettered() {
+        Long id = createInventory("POS-3", 10);
+        inventoryService.removeStock(id, 8);
+        double rejected = meterRegistry.get("apparels.inventory.write-behind.rejected").counter().count();
+        
+        // Lowered behind the buffer's back, so the -8 no longer fits
+        jdbcTemplate.update("UPDATE inventory SET stock_level = 3 WHERE id = ?", id);
+        stockWriteBehindBuffer.flush();
+        
+        assertEquals(3, inventoryRepository.findById(id).orElseThrow().getStockLevel());
+        assertEquals(List.of(-8), stockRejectionRepository.findAll().stream()
+                .filter(rejection -> rejection.getInventoryId().equals(id))
+                .map(StockRejection::getQuantity)
+                .toList());
+        assertEquals(rejected + 1, meterRegistry.get("apparels.inventory.write-behind.rejected").counter().count());
+    }
+    
+    @Test
+    void writeAheadLogIgnoresTornLastLine() throws Exception {
+        Path segment = Files.createTempFile(walDirectory, "segment", ".log");
+        Files.writeString(segment, "7,5\n7,-2\n9,3\n9,-1");
+        
+        assertEquals(Map.of(7L, 3, 9L, 3), StockWriteAheadLog.read(segment));
+    }
+    
+    // Segment names are journaled as flush references, so an emptied directory must not bring them back
+    @Test
+    void segmentNamesAreNotReusedAcrossRuns() throws Exception {
+        Path directory = Files.createTempDirectory(walDirectory, "runs");
+        Path first;
+        try (StockWriteAheadLog log = new StockWriteAheadLog(directory, false)) {
+            log.append(7, 1);
+            first = log.rotate();
+        }
+        try (Stream<Path> segments = Files.list(directory)) {
+            for (Path segment : segments.toList()) {
+                Files.delete(segment);
+            }
+        }
+        
+        try (StockWriteAheadLog log = new StockWriteAheadLog(directory, false)) {
+            assertNotEquals(first.getFileName(), log.rotate().getFileName());
+        }
+    }
+    
+    // A segment whose deltas were all dead-lettered has no journal entry, but is still written
+    @Test
+    void recoverySkipsSegmentsWhoseDeltasWereAllRejected() throws Exception {
+        Long id = createInventory("POS-5", 10);
+        Path directory = Files.createTempDirectory(walDirectory, "recovery");
+        Path segment;
+        try (StockWriteAheadLog log = new StockWriteAheadLog(directory, false)) {
+            log.append(id, -8);
+            segment = log.rotate();
+        }
+        // The flush rejected the -8 and crashed before deleting the segment
+        stockRejectionRepository.save(new StockRejection(null, id, -8, StockWriteBehindBuffer.reference(segment),
+                LocalDateTime.now()));
+        
+        StockWriteBehindBuffer restarted = new StockWriteBehindBuffer(inventoryRepository, inventoryBatchRepository,
+                inventoryMovementRepository, stockRejectionRepository, dashboardStatsService, lowStockTracker,
+                inventoryEventBus, transactionManager, meterRegistry, directory, false, 1000000);
+        restarted.close();
+        
+        assertFalse(Files.exists(segment));
+        assertEquals(10, inventoryRepository.findById(id).orElseThrow().getStockLevel());
+        assertEquals(1, stockRejectionRepository.findAll().stream()
+                .filter(rejection -> rejection.getInventoryId().equals(id))
+                .count());
+    }
+    
+    private Long createInventory(String sku, int stockLevel) {
+        Category category = new Category();
+        category.setName("Write Behind " + sku);
+        category = categoryService.createCategory(category);
+        
+        Product product = new Product();
+        product.setName("POS Tee");
+        product.setSku(sku);
+        product.setPrice(new BigDecimal("8.00"));
+        product.setCategory(category);
+        product = productService.createProduct(product);
+        
+        Inventory inventory = new Inventory();
+        inventory.setStockLevel(stockLevel);
+        return inventoryService.createInventory(product.getId(), inventory).getId();
+    }
+}